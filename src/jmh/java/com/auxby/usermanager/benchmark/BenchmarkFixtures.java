@@ -0,0 +1,52 @@
+package com.auxby.usermanager.benchmark;
+
+import com.auxby.usermanager.entity.Address;
+import com.auxby.usermanager.entity.Contact;
+import com.auxby.usermanager.entity.UserDetails;
+import com.auxby.usermanager.utils.enums.ContactType;
+
+import java.lang.reflect.Proxy;
+import java.util.function.Function;
+
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    static UserDetails user(String uuid) {
+        UserDetails user = new UserDetails();
+        user.setAccountUuid(uuid);
+        user.setUserName(uuid + "@auxby.com");
+        user.setFirstName("Jane");
+        user.setLastName("Doe");
+        user.setGender("Unknown");
+        user.setAvatarUrl("https://cdn.auxby.com/avatar-" + uuid);
+        user.setAvailableCoins(100);
+        user.setIsGoogleAccount(false);
+        user.addContact(contact(ContactType.EMAIL, uuid + "@auxby.com"));
+        user.addContact(contact(ContactType.PHONE, "0712345678"));
+        Address address = new Address();
+        address.setCity("Cluj-Napoca");
+        address.setCountry("Romania");
+        address.setStreet("");
+        user.addAddress(address);
+        return user;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> T stub(Class<T> type, Function<Object[], Object> answer) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return method.invoke(answer, args);
+            }
+            return answer.apply(args);
+        });
+    }
+
+    private static Contact contact(ContactType type, String value) {
+        Contact contact = new Contact();
+        contact.setType(type);
+        contact.setValue(value);
+        return contact;
+    }
+}
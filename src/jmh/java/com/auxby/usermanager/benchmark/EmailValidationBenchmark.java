@@ -0,0 +1,60 @@
+package com.auxby.usermanager.benchmark;
+
+import com.auxby.usermanager.api.v1.address.model.AddressInfo;
+import com.auxby.usermanager.api.v1.user.model.UserDetailsInfo;
+import org.openjdk.jmh.annotations.*;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import javax.validation.ValidatorFactory;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import static com.auxby.usermanager.utils.constant.AppConstant.VALID_EMAIL_REGEX;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmailValidationBenchmark {
+    @Param({"jane.doe@auxby.com", "jane.doe.with.a.rather.long.local.part@mail.subdomain.auxby.com", "not-an-email-address-at-all-without-the-at-sign"})
+    public String email;
+
+    private Pattern emailPattern;
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private UserDetailsInfo userDetailsInfo;
+
+    @Setup
+    public void setup() {
+        emailPattern = Pattern.compile(VALID_EMAIL_REGEX);
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        userDetailsInfo = new UserDetailsInfo("Doe", "Jane", "Pwd.123", email,
+                new AddressInfo("Cluj-Napoca", "Romania"), "0712345678", null);
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public boolean precompiledPattern() {
+        return emailPattern.matcher(email).matches();
+    }
+
+    @Benchmark
+    public boolean compileOnEachCall() {
+        return Pattern.matches(VALID_EMAIL_REGEX, email);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<UserDetailsInfo>> beanValidation() {
+        return validator.validate(userDetailsInfo);
+    }
+}
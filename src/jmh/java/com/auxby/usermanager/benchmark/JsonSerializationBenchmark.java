@@ -0,0 +1,42 @@
+package com.auxby.usermanager.benchmark;
+
+import com.auxby.usermanager.api.v1.address.model.AddressInfo;
+import com.auxby.usermanager.api.v1.auth.model.AuthResponse;
+import com.auxby.usermanager.api.v1.user.model.UserDetailsResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+    private ObjectMapper objectMapper;
+    private UserDetailsResponse userDetailsResponse;
+    private AuthResponse authResponse;
+
+    @Setup
+    public void setup() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        userDetailsResponse = new UserDetailsResponse("Doe", "Jane", "jane.doe@auxby.com",
+                new AddressInfo("Cluj-Napoca", "Romania"), "0712345678",
+                "https://cdn.auxby.com/avatar-benchmark", 100, false);
+        authResponse = new AuthResponse("eyJhbGciOiJSUzI1NiIsInR5cCI6IkpXVCJ9." + "a".repeat(900) + ".signature");
+    }
+
+    @Benchmark
+    public byte[] userDetailsResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(userDetailsResponse);
+    }
+
+    @Benchmark
+    public byte[] authResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(authResponse);
+    }
+}
@@ -0,0 +1,54 @@
+package com.auxby.usermanager.benchmark;
+
+import com.auxby.usermanager.api.v1.user.UserLastSeenBuffer;
+import com.auxby.usermanager.config.MonitoringFilter;
+import com.auxby.usermanager.config.properties.LastSeenProps;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MonitoringFilterBenchmark {
+    @Param({"true", "false"})
+    public boolean authenticated;
+
+    private final FilterChain chain = (request, response) -> {
+    };
+    private MonitoringFilter monitoringFilter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setup() {
+        monitoringFilter = new MonitoringFilter(new UserLastSeenBuffer(null, new LastSeenProps(), null));
+        request = new MockHttpServletRequest("GET", "/api/v1/user");
+        response = new MockHttpServletResponse();
+        if (authenticated) {
+            SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("benchmark-uuid", null));
+        } else {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public void doFilter() throws ServletException, IOException {
+        monitoringFilter.doFilter(request, response, chain);
+    }
+}
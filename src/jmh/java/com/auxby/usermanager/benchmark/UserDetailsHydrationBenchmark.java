@@ -0,0 +1,97 @@
+package com.auxby.usermanager.benchmark;
+
+import com.auxby.usermanager.entity.UserDetails;
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import javax.persistence.EntityGraph;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserDetailsHydrationBenchmark {
+    private static final int USERS = 1_000;
+    private static final String FIND_BY_ACCOUNT_UUID = "select u from UserDetails u where u.accountUuid = :uuid";
+
+    private HikariDataSource dataSource;
+    private LocalContainerEntityManagerFactoryBean factoryBean;
+    private EntityManagerFactory entityManagerFactory;
+
+    @Setup
+    public void setup() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:benchmark;MODE=PostgreSQL;NON_KEYWORDS=VALUE;DB_CLOSE_DELAY=-1");
+        Properties jpaProperties = new Properties();
+        jpaProperties.setProperty("hibernate.hbm2ddl.auto", "create-drop");
+        jpaProperties.setProperty("hibernate.physical_naming_strategy", CamelCaseToUnderscoresNamingStrategy.class.getName());
+        jpaProperties.setProperty("hibernate.implicit_naming_strategy", SpringImplicitNamingStrategy.class.getName());
+        factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setPackagesToScan("com.auxby.usermanager.entity");
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setJpaProperties(jpaProperties);
+        factoryBean.afterPropertiesSet();
+        entityManagerFactory = factoryBean.getObject();
+
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        entityManager.getTransaction().begin();
+        entityManager.createNativeQuery("create index user_details_account_uuid_idx on user_details (account_uuid)")
+                .executeUpdate();
+        for (int i = 0; i < USERS; i++) {
+            entityManager.persist(BenchmarkFixtures.user("uuid-" + i));
+        }
+        entityManager.getTransaction().commit();
+        entityManager.close();
+    }
+
+    @TearDown
+    public void tearDown() {
+        factoryBean.destroy();
+        dataSource.close();
+    }
+
+    @Benchmark
+    public int withEntityGraph() {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            EntityGraph<UserDetails> graph = entityManager.createEntityGraph(UserDetails.class);
+            graph.addAttributeNodes("addresses", "contacts");
+            UserDetails user = entityManager.createQuery(FIND_BY_ACCOUNT_UUID, UserDetails.class)
+                    .setParameter("uuid", randomUuid())
+                    .setHint("javax.persistence.loadgraph", graph)
+                    .getSingleResult();
+            return user.getContacts().size() + user.getAddresses().size();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    @Benchmark
+    public int withLazyCollections() {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            UserDetails user = entityManager.createQuery(FIND_BY_ACCOUNT_UUID, UserDetails.class)
+                    .setParameter("uuid", randomUuid())
+                    .getSingleResult();
+            return user.getContacts().size() + user.getAddresses().size();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private String randomUuid() {
+        return "uuid-" + ThreadLocalRandom.current().nextInt(USERS);
+    }
+}
@@ -0,0 +1,43 @@
+package com.auxby.usermanager.benchmark;
+
+import com.auxby.usermanager.api.v1.user.UserRepository;
+import com.auxby.usermanager.api.v1.user.UserProfileCache;
+import com.auxby.usermanager.api.v1.user.UserService;
+import com.auxby.usermanager.api.v1.user.model.UserDetailsResponse;
+import com.auxby.usermanager.config.properties.CacheProps;
+import com.auxby.usermanager.entity.UserDetails;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserMappingBenchmark {
+    private UserService userService;
+    private UserProfileCache userProfileCache;
+
+    @Setup
+    public void setup() {
+        Optional<UserDetails> user = Optional.of(BenchmarkFixtures.user("benchmark-uuid"));
+        UserRepository userRepository = BenchmarkFixtures.stub(UserRepository.class, args -> user);
+        userProfileCache = new UserProfileCache(new CacheProps(), new SimpleMeterRegistry());
+        userService = new UserService(userRepository, null, null, null, null, userProfileCache, null, null, null, new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public UserDetailsResponse getUser() {
+        userProfileCache.evict("benchmark-uuid");
+        return userService.getUser("benchmark-uuid");
+    }
+
+    @Benchmark
+    public UserDetailsResponse getUserCached() {
+        return userService.getUser("benchmark-uuid");
+    }
+}
@@ -0,0 +1,181 @@
+package com.auxby.usermanager.loadtest;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+class FakeKeycloak extends FakeServer {
+    static final String REALM = "auxby";
+    static final String CLIENT_ID = "user-manager";
+    static final String CLIENT_SECRET = "load-test-secret";
+    private static final String CERTS_PATH = "/realms/" + REALM + "/protocol/openid-connect/certs";
+    private static final String TOKEN_PATH = "/realms/" + REALM + "/protocol/openid-connect/token";
+    private static final Pattern USER_PATH = Pattern.compile("/admin/realms/" + REALM + "/users/([^/]+)(/.*)?");
+
+    private final RSAKey signingKey;
+    private final ConcurrentMap<String, Map<String, Object>> usersById = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, String> idsByUsername = new ConcurrentHashMap<>();
+
+    FakeKeycloak(Duration latency) throws IOException, JOSEException {
+        super("keycloak", latency);
+        signingKey = new RSAKeyGenerator(2048).keyID("load-test").generate();
+    }
+
+    String issuer() {
+        return baseUrl() + "/realms/" + REALM;
+    }
+
+    String tokenUrl() {
+        return baseUrl() + TOKEN_PATH;
+    }
+
+    String certsUrl() {
+        return baseUrl() + CERTS_PATH;
+    }
+
+    String googleCertsUrl() {
+        return baseUrl() + "/google/certs";
+    }
+
+    @Override
+    protected void handle(HttpExchange exchange) throws Exception {
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath();
+        if (path.equals("/google/certs")) {
+            exchange.getResponseHeaders().set("Cache-Control", "public, max-age=86400");
+            sendJson(exchange, 200, Map.of());
+        } else if (path.equals(CERTS_PATH)) {
+            send(exchange, 200, "application/json", new JWKSet(signingKey.toPublicJWK()).toString());
+        } else if (path.equals(TOKEN_PATH) && method.equals("POST")) {
+            token(exchange);
+        } else if (path.equals("/admin/realms/" + REALM + "/roles/auxby_user")) {
+            sendJson(exchange, 200, Map.of("id", "auxby-user-role", "name", "auxby_user", "composite", false));
+        } else if (path.equals("/admin/realms/" + REALM + "/users") && method.equals("POST")) {
+            createUser(exchange);
+        } else if (path.equals("/admin/realms/" + REALM + "/users") && method.equals("GET")) {
+            searchUsers(exchange);
+        } else {
+            Matcher matcher = USER_PATH.matcher(path);
+            if (matcher.matches()) {
+                userResource(exchange, matcher.group(1), Objects.requireNonNullElse(matcher.group(2), ""));
+            } else {
+                sendEmpty(exchange, 404);
+            }
+        }
+    }
+
+    private void token(HttpExchange exchange) throws Exception {
+        Map<String, String> form = parseForm(readBody(exchange));
+        String subject;
+        if ("client_credentials".equals(form.get("grant_type"))) {
+            subject = "service-account-" + CLIENT_ID;
+        } else {
+            subject = idsByUsername.get(form.get("username"));
+            if (subject == null) {
+                sendJson(exchange, 401, Map.of("error", "invalid_grant"));
+                return;
+            }
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("access_token", signToken(subject));
+        body.put("expires_in", 300);
+        body.put("refresh_expires_in", 1800);
+        body.put("refresh_token", UUID.randomUUID().toString());
+        body.put("token_type", "Bearer");
+        body.put("session_state", UUID.randomUUID().toString());
+        sendJson(exchange, 200, body);
+    }
+
+    private void createUser(HttpExchange exchange) throws IOException {
+        @SuppressWarnings("unchecked")
+        Map<String, Object> user = MAPPER.readValue(readBody(exchange), Map.class);
+        String username = (String) user.get("username");
+        String id = UUID.randomUUID().toString();
+        if (idsByUsername.putIfAbsent(username, id) != null) {
+            sendJson(exchange, 409, Map.of("errorMessage", "User exists with same username"));
+            return;
+        }
+        user.put("id", id);
+        user.remove("credentials");
+        usersById.put(id, user);
+        exchange.getResponseHeaders().set("Location", baseUrl() + "/admin/realms/" + REALM + "/users/" + id);
+        sendEmpty(exchange, 201);
+    }
+
+    private void searchUsers(HttpExchange exchange) throws IOException {
+        Map<String, String> query = parseForm(Objects.requireNonNullElse(exchange.getRequestURI().getRawQuery(), ""));
+        String username = query.getOrDefault("username", query.get("search"));
+        String id = username == null ? null : idsByUsername.get(username);
+        sendJson(exchange, 200, id == null ? List.of() : List.of(usersById.get(id)));
+    }
+
+    private void userResource(HttpExchange exchange, String id, String action) throws IOException {
+        // an unread (possibly empty chunked) body leaves the kept-alive connection unusable for the next request
+        readBody(exchange);
+        Map<String, Object> user = usersById.get(id);
+        if (user == null) {
+            sendEmpty(exchange, 404);
+            return;
+        }
+        String method = exchange.getRequestMethod();
+        if (action.isEmpty() && method.equals("GET")) {
+            sendJson(exchange, 200, user);
+        } else if (action.isEmpty() && method.equals("DELETE")) {
+            usersById.remove(id);
+            idsByUsername.remove((String) user.get("username"));
+            sendEmpty(exchange, 204);
+        } else if (action.equals("/send-verify-email")) {
+            // the load test user "clicks" the link straight away so that it can log in
+            user.put("emailVerified", true);
+            sendEmpty(exchange, 204);
+        } else {
+            sendEmpty(exchange, 204);
+        }
+    }
+
+    private String signToken(String subject) throws JOSEException {
+        Instant now = Instant.now();
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .issuer(issuer())
+                .subject(subject)
+                .audience("account")
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plus(Duration.ofMinutes(30))))
+                .claim("azp", CLIENT_ID)
+                .claim("realm_access", Map.of("roles", List.of("auxby_user")))
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(signingKey.getKeyID()).build(), claims);
+        jwt.sign(new RSASSASigner(signingKey));
+        return jwt.serialize();
+    }
+
+    private static Map<String, String> parseForm(String body) {
+        Map<String, String> values = new HashMap<>();
+        for (String pair : body.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                values.put(URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return values;
+    }
+}
@@ -0,0 +1,83 @@
+package com.auxby.usermanager.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+class FakeS3 extends FakeServer {
+    static final String BUCKET = "load-test";
+
+    private final Set<String> keys = ConcurrentHashMap.newKeySet();
+
+    FakeS3(Duration latency) throws IOException {
+        super("s3", latency);
+    }
+
+    @Override
+    protected void handle(HttpExchange exchange) throws Exception {
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath();
+        String query = exchange.getRequestURI().getRawQuery();
+        String key = path.startsWith("/" + BUCKET + "/") ? path.substring(BUCKET.length() + 2) : "";
+        if (method.equals("PUT") && !key.isEmpty()) {
+            byte[] content = exchange.getRequestBody().readAllBytes();
+            String payloadHash = exchange.getRequestHeaders().getFirst("x-amz-content-sha256");
+            if (payloadHash != null && payloadHash.startsWith("STREAMING-")) {
+                content = decodeChunks(content);
+            }
+            keys.add(key);
+            // the SDK compares the ETag with the MD5 of what it sent
+            exchange.getResponseHeaders().set("ETag", "\"" + HexFormat.of().formatHex(MessageDigest.getInstance("MD5").digest(content)) + "\"");
+            sendEmpty(exchange, 200);
+        } else if (method.equals("DELETE") && !key.isEmpty()) {
+            keys.remove(key);
+            sendEmpty(exchange, 204);
+        } else if (method.equals("GET") && query != null && query.contains("list-type=2")) {
+            send(exchange, 200, "application/xml", """
+                    <?xml version="1.0" encoding="UTF-8"?>
+                    <ListBucketResult xmlns="http://s3.amazonaws.com/doc/2006-03-01/">
+                        <Name>%s</Name><KeyCount>0</KeyCount><MaxKeys>1000</MaxKeys><IsTruncated>false</IsTruncated>
+                    </ListBucketResult>""".formatted(BUCKET));
+        } else if (method.equals("POST") && query != null && query.startsWith("delete")) {
+            readBody(exchange);
+            send(exchange, 200, "application/xml", """
+                    <?xml version="1.0" encoding="UTF-8"?>
+                    <DeleteResult xmlns="http://s3.amazonaws.com/doc/2006-03-01/"></DeleteResult>""");
+        } else {
+            sendEmpty(exchange, 404);
+        }
+    }
+
+    // aws-chunked: "<hex size>;chunk-signature=<sig>\r\n<data>\r\n" repeated until a zero sized chunk
+    private static byte[] decodeChunks(byte[] body) {
+        ByteArrayOutputStream content = new ByteArrayOutputStream(body.length);
+        int position = 0;
+        while (position < body.length) {
+            int headerEnd = indexOfCrlf(body, position);
+            String header = new String(body, position, headerEnd - position, StandardCharsets.US_ASCII);
+            int size = Integer.parseInt(header.substring(0, header.indexOf(';')), 16);
+            if (size == 0) {
+                break;
+            }
+            content.write(body, headerEnd + 2, size);
+            position = headerEnd + 2 + size + 2;
+        }
+        return content.toByteArray();
+    }
+
+    private static int indexOfCrlf(byte[] body, int from) {
+        for (int i = from; i < body.length - 1; i++) {
+            if (body[i] == '\r' && body[i + 1] == '\n') {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Malformed aws-chunked body.");
+    }
+}
@@ -0,0 +1,36 @@
+package com.auxby.usermanager.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+class FakeStripe extends FakeServer {
+
+    FakeStripe(Duration latency) throws IOException {
+        super("stripe", latency);
+    }
+
+    @Override
+    protected void handle(HttpExchange exchange) throws Exception {
+        if (!exchange.getRequestMethod().equals("POST") || !exchange.getRequestURI().getPath().equals("/v1/payment_intents")) {
+            sendJson(exchange, 404, Map.of("error", Map.of("type", "invalid_request_error", "message", "Unrecognized request URL")));
+            return;
+        }
+        readBody(exchange);
+        String id = "pi_" + UUID.randomUUID().toString().replace("-", "");
+        Map<String, Object> paymentIntent = new LinkedHashMap<>();
+        paymentIntent.put("id", id);
+        paymentIntent.put("object", "payment_intent");
+        paymentIntent.put("client_secret", id + "_secret_" + UUID.randomUUID().toString().replace("-", ""));
+        paymentIntent.put("status", "requires_payment_method");
+        paymentIntent.put("created", Instant.now().getEpochSecond());
+        paymentIntent.put("livemode", false);
+        exchange.getResponseHeaders().set("Request-Id", "req_" + UUID.randomUUID().toString().replace("-", ""));
+        sendJson(exchange, 200, paymentIntent);
+    }
+}
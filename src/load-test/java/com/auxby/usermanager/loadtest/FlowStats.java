@@ -0,0 +1,42 @@
+package com.auxby.usermanager.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+class FlowStats {
+    private final Histogram latencies = new ConcurrentHistogram(TimeUnit.MINUTES.toNanos(1), 3);
+    private final LongAdder errors = new LongAdder();
+
+    void record(long latencyNanos, boolean success) {
+        latencies.recordValue(Math.min(latencyNanos, latencies.getHighestTrackableValue()));
+        if (!success) {
+            errors.increment();
+        }
+    }
+
+    Map<String, Object> summary(double seconds) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", latencies.getTotalCount());
+        summary.put("errors", errors.sum());
+        summary.put("throughput", round(latencies.getTotalCount() / seconds));
+        summary.put("p50", millis(latencies.getValueAtPercentile(50)));
+        summary.put("p90", millis(latencies.getValueAtPercentile(90)));
+        summary.put("p99", millis(latencies.getValueAtPercentile(99)));
+        summary.put("p999", millis(latencies.getValueAtPercentile(99.9)));
+        summary.put("max", millis(latencies.getMaxValue()));
+        return summary;
+    }
+
+    private static double millis(long nanos) {
+        return round(nanos / 1_000_000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
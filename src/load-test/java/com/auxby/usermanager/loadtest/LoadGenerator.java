@@ -0,0 +1,158 @@
+package com.auxby.usermanager.loadtest;
+
+import com.auxby.usermanager.loadtest.LoadTestConfig.Flow;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+class LoadGenerator {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String PASSWORD = "Pwd.load-test";
+
+    private final String baseUrl;
+    private final LoadTestConfig config;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newFixedThreadPool(32, runnable -> {
+                Thread thread = new Thread(runnable, "load-generator");
+                thread.setDaemon(true);
+                return thread;
+            }))
+            .build();
+    private final List<User> users = new ArrayList<>();
+    private final AtomicLong registrations = new AtomicLong();
+    private final Flow[] schedule;
+
+    LoadGenerator(String baseUrl, LoadTestConfig config) {
+        this.baseUrl = baseUrl;
+        this.config = config;
+        this.schedule = config.mix().entrySet().stream()
+                .flatMap(entry -> Collections.nCopies(entry.getValue(), entry.getKey()).stream())
+                .toArray(Flow[]::new);
+    }
+
+    void prepareUsers() throws IOException, InterruptedException {
+        for (int i = 0; i < config.users(); i++) {
+            String email = nextEmail();
+            HttpResponse<String> registered = httpClient.send(register(email), HttpResponse.BodyHandlers.ofString());
+            if (registered.statusCode() != 200) {
+                throw new IllegalStateException("Registration of " + email + " failed: " + registered.body());
+            }
+            HttpResponse<String> login = httpClient.send(login(email), HttpResponse.BodyHandlers.ofString());
+            if (login.statusCode() != 200) {
+                throw new IllegalStateException("Login of " + email + " failed: " + login.body());
+            }
+            users.add(new User(email, MAPPER.readTree(login.body()).path("token").asText()));
+        }
+    }
+
+    Map<Flow, FlowStats> run(Duration duration) throws InterruptedException {
+        Map<Flow, FlowStats> stats = new EnumMap<>(Flow.class);
+        for (Flow flow : schedule) {
+            stats.putIfAbsent(flow, new FlowStats());
+        }
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / config.rps();
+        long total = duration.toNanos() / intervalNanos;
+        long start = System.nanoTime();
+        List<CompletableFuture<?>> inFlight = new ArrayList<>();
+        for (long i = 0; i < total; i++) {
+            // open model: latency is measured from the intended start so a slow service is not hidden by a slow generator
+            long intendedStart = start + i * intervalNanos;
+            long wait = intendedStart - System.nanoTime();
+            if (wait > 0) {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            }
+            Flow flow = schedule[(int) (i % schedule.length)];
+            FlowStats flowStats = stats.get(flow);
+            inFlight.add(httpClient.sendAsync(request(flow), HttpResponse.BodyHandlers.discarding())
+                    .orTimeout(30, TimeUnit.SECONDS)
+                    .whenComplete((response, exception) -> flowStats.record(System.nanoTime() - intendedStart,
+                            exception == null && response.statusCode() < 400)));
+        }
+        CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new))
+                .exceptionally(exception -> null)
+                .join();
+        return stats;
+    }
+
+    private HttpRequest request(Flow flow) {
+        return switch (flow) {
+            case LOGIN -> login(randomUser().email());
+            case REGISTER -> register(nextEmail());
+            case PROFILE -> authorized(randomUser(), "").GET().build();
+            case PAYMENT -> authorized(randomUser(), "/create-payment-intent")
+                    .header("Content-Type", "application/json")
+                    .POST(json(Map.of("amount", 25.0, "paymentType", "card", "currency", "ron", "coins", 50)))
+                    .build();
+            case AVATAR -> avatar(randomUser());
+        };
+    }
+
+    private HttpRequest register(String email) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("lastName", "Load");
+        body.put("firstName", "Test");
+        body.put("password", PASSWORD);
+        body.put("email", email);
+        body.put("address", Map.of("city", "Cluj-Napoca", "country", "Romania"));
+        body.put("phone", "0712345678");
+        return HttpRequest.newBuilder(URI.create(baseUrl))
+                .header("Content-Type", "application/json")
+                .POST(json(body))
+                .build();
+    }
+
+    private HttpRequest login(String email) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/login"))
+                .header("Content-Type", "application/json")
+                .POST(json(Map.of("email", email, "password", PASSWORD)))
+                .build();
+    }
+
+    private HttpRequest avatar(User user) {
+        String boundary = "load-test-" + UUID.randomUUID();
+        byte[] image = new byte[32 * 1024];
+        ThreadLocalRandom.current().nextBytes(image);
+        byte[] head = ("--" + boundary + "\r\nContent-Disposition: form-data; name=\"file\"; filename=\"avatar.png\"\r\n"
+                + "Content-Type: image/png\r\n\r\n").getBytes(StandardCharsets.UTF_8);
+        byte[] tail = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8);
+        return authorized(user, "/avatar")
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofByteArrays(List.of(head, image, tail)))
+                .build();
+    }
+
+    private HttpRequest.Builder authorized(User user, String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Authorization", "Bearer " + user.token());
+    }
+
+    private HttpRequest.BodyPublisher json(Object body) {
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(MAPPER.writeValueAsBytes(body));
+        } catch (IOException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    private User randomUser() {
+        return users.get(ThreadLocalRandom.current().nextInt(users.size()));
+    }
+
+    private String nextEmail() {
+        return "load-" + registrations.incrementAndGet() + "-" + UUID.randomUUID().toString().substring(0, 8) + "@auxby.com";
+    }
+
+    private record User(String email, String token) {
+    }
+}
@@ -0,0 +1,65 @@
+package com.auxby.usermanager.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+record LoadTestConfig(int rps,
+                      Duration duration,
+                      Duration warmup,
+                      int users,
+                      Map<Flow, Integer> mix,
+                      Duration keycloakLatency,
+                      Duration s3Latency,
+                      Duration stripeLatency,
+                      String dbUrl,
+                      String dbUser,
+                      String dbPassword,
+                      boolean virtualThreads,
+                      String report) {
+
+    static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig(
+                Integer.getInteger("load.rps", 50),
+                duration("load.duration", "60s"),
+                duration("load.warmup", "10s"),
+                Integer.getInteger("load.users", 100),
+                mix(System.getProperty("load.mix", "login:4,profile:4,register:1,payment:1,avatar:0")),
+                duration("load.latency.keycloak", "20ms"),
+                duration("load.latency.s3", "30ms"),
+                duration("load.latency.stripe", "150ms"),
+                property("load.db.url", "jdbc:h2:mem:load-test;MODE=PostgreSQL;NON_KEYWORDS=VALUE;DB_CLOSE_DELAY=-1"),
+                property("load.db.user", "sa"),
+                property("load.db.password", ""),
+                Boolean.getBoolean("load.virtual-threads"),
+                System.getProperty("load.report", "target/load-test-report.json"));
+    }
+
+    boolean inMemoryDatabase() {
+        return dbUrl.startsWith("jdbc:h2:");
+    }
+
+    private static String property(String property, String defaultValue) {
+        String value = System.getProperty(property);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+
+    private static Duration duration(String property, String defaultValue) {
+        return DurationStyle.detectAndParse(System.getProperty(property, defaultValue));
+    }
+
+    private static Map<Flow, Integer> mix(String value) {
+        Map<Flow, Integer> weights = new LinkedHashMap<>();
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split(":");
+            weights.put(Flow.valueOf(parts[0].trim().toUpperCase()), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+
+    enum Flow {
+        LOGIN, PROFILE, REGISTER, PAYMENT, AVATAR
+    }
+}
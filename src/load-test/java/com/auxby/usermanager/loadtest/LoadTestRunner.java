@@ -0,0 +1,115 @@
+package com.auxby.usermanager.loadtest;
+
+import com.auxby.usermanager.UserManagerApplication;
+import com.auxby.usermanager.loadtest.LoadTestConfig.Flow;
+import com.auxby.usermanager.utils.VirtualThreads;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.stripe.Stripe;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class LoadTestRunner {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        try (FakeKeycloak keycloak = new FakeKeycloak(config.keycloakLatency());
+             FakeS3 s3 = new FakeS3(config.s3Latency());
+             FakeStripe stripe = new FakeStripe(config.stripeLatency())) {
+            Stripe.overrideApiBase(stripe.baseUrl());
+            // command line arguments take precedence over the environment placeholders in application.yml
+            String[] applicationArgs = applicationProperties(config, keycloak, s3).entrySet()
+                    .stream()
+                    .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                    .toArray(String[]::new);
+            try (ConfigurableApplicationContext context = new SpringApplicationBuilder(UserManagerApplication.class)
+                    .run(applicationArgs)) {
+                if (config.inMemoryDatabase()) {
+                    // the column is managed by the migration scripts, not by the entity mapping
+                    context.getBean(JdbcTemplate.class).execute("alter table user_details add column if not exists last_seen timestamp");
+                }
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                LoadGenerator generator = new LoadGenerator("http://127.0.0.1:" + port + "/api/v1/user", config);
+                generator.prepareUsers();
+                generator.run(config.warmup());
+                Map<Flow, FlowStats> stats = generator.run(config.duration());
+                report(config, stats, context.getBean(VirtualThreads.class).isEnabled());
+            }
+        }
+    }
+
+    private static Map<String, Object> applicationProperties(LoadTestConfig config, FakeKeycloak keycloak, FakeS3 s3) {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("server.port", 0);
+        properties.put("spring.profiles.include", "");
+        properties.put("eureka.client.enabled", false);
+        properties.put("logging.level.root", "WARN");
+        // the test application.yml shadows the main one on this classpath, keep the production setting so
+        // async requests do not hold a connection while waiting on stripe
+        properties.put("spring.jpa.open-in-view", false);
+        properties.put("spring.datasource.url", config.dbUrl());
+        properties.put("spring.datasource.username", config.dbUser());
+        properties.put("spring.datasource.password", config.dbPassword());
+        properties.put("virtual-threads.enabled", config.virtualThreads());
+        if (config.inMemoryDatabase()) {
+            properties.put("spring.jpa.hibernate.ddl-auto", "create");
+            // the deletion job and stripe event claim queries rely on "skip locked", which H2 does not support
+            properties.put("account-deletion.poll-interval", "1d");
+            properties.put("logging.level.com.auxby.usermanager.api.v1.user.AccountDeletionWorker", "ERROR");
+            properties.put("stripe.webhook.poll-interval", "1d");
+            // LISTEN/NOTIFY is postgres only
+            properties.put("cache.invalidation.enabled", false);
+        }
+        properties.put("spring.security.oauth2.resourceserver.jwt.issuer-uri", keycloak.issuer());
+        properties.put("spring.security.oauth2.resourceserver.jwt.jwk-set-uri", keycloak.certsUrl());
+        properties.put("keycloak-client.url", keycloak.baseUrl());
+        properties.put("keycloak-client.realm", FakeKeycloak.REALM);
+        properties.put("keycloak-client.client-id", FakeKeycloak.CLIENT_ID);
+        properties.put("keycloak-client.client-secret", FakeKeycloak.CLIENT_SECRET);
+        properties.put("keycloak-client.auth-url", keycloak.tokenUrl());
+        properties.put("google-auth.certs-url", keycloak.googleCertsUrl());
+        properties.put("aws.region", "eu-central-1");
+        properties.put("aws.bucket", FakeS3.BUCKET);
+        properties.put("aws.accessKey", "load-test");
+        properties.put("aws.secretKey", "load-test");
+        properties.put("aws.endpoint", s3.baseUrl());
+        properties.put("aws.service-endpoint", s3.baseUrl());
+        properties.put("stripe.secret-key", "sk_test_load");
+        properties.put("stripe.public-key", "pk_test_load");
+        return properties;
+    }
+
+    private static void report(LoadTestConfig config, Map<Flow, FlowStats> stats, boolean virtualThreads) throws Exception {
+        double seconds = config.duration().toMillis() / 1000.0;
+        Map<String, Object> flows = new LinkedHashMap<>();
+        stats.forEach((flow, flowStats) -> flows.put(flow.name().toLowerCase(), flowStats.summary(seconds)));
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("targetRps", config.rps());
+        report.put("durationSeconds", seconds);
+        // the effective mode, runtimes before java 21 fall back to platform threads
+        report.put("virtualThreads", virtualThreads);
+        report.put("latencyMs", Map.of(
+                "keycloak", config.keycloakLatency().toMillis(),
+                "s3", config.s3Latency().toMillis(),
+                "stripe", config.stripeLatency().toMillis()));
+        report.put("flows", flows);
+
+        System.out.printf("%n%-10s %9s %7s %9s %9s %9s %9s %9s %9s%n", "flow", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        flows.forEach((flow, summary) -> {
+            Map<?, ?> values = (Map<?, ?>) summary;
+            System.out.printf("%-10s %9s %7s %9s %9s %9s %9s %9s %9s%n", flow, values.get("requests"), values.get("errors"),
+                    values.get("throughput"), values.get("p50"), values.get("p90"), values.get("p99"), values.get("p999"), values.get("max"));
+        });
+        Path reportPath = Path.of(config.report());
+        Files.createDirectories(reportPath.toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(reportPath.toFile(), report);
+        System.out.println("Report written to " + reportPath.toAbsolutePath());
+    }
+}
@@ -7,10 +7,9 @@ import com.auxby.usermanager.utils.constant.AppConstant;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 
 import javax.validation.Valid;
-import java.io.IOException;
-import java.security.GeneralSecurityException;
 
 @Slf4j
 @RestController
@@ -20,26 +19,26 @@ public class AuthController {
     private final AuthService authService;
 
     @PostMapping("/login")
-    public AuthResponse login(@Valid @RequestBody AuthInfo authInfo) {
+    public Mono<AuthResponse> login(@Valid @RequestBody AuthInfo authInfo) {
         log.info("Login user.");
-        return authService.login(authInfo);
+        return authService.loginAsync(authInfo);
     }
 
     @PostMapping("/googleAuth")
-    public AuthResponse googleAuth(@Valid @RequestBody AuthGoogle authGoogle) {
+    public Mono<AuthResponse> googleAuth(@Valid @RequestBody AuthGoogle authGoogle) {
         log.info("POST - googleAuth");
-        return authService.googleAuth(authGoogle);
+        return authService.googleAuthAsync(authGoogle);
     }
 
     @PostMapping("/reset")
-    public Boolean resetPassword(@RequestParam String email) {
+    public Mono<Boolean> resetPassword(@RequestParam String email) {
         log.info("Reset password");
-        return authService.resetPassword(email);
+        return authService.resetPasswordAsync(email);
     }
 
     @PostMapping("/resend-verification-link")
-    public Boolean resendVerificationLink(@RequestParam String email) {
+    public Mono<Boolean> resendVerificationLink(@RequestParam String email) {
         log.info("Resend verification link.");
-        return authService.resendVerificationLink(email);
+        return authService.resendVerificationLinkAsync(email);
     }
 }
@@ -5,32 +5,29 @@ import com.auxby.usermanager.api.v1.auth.model.*;
 import com.auxby.usermanager.api.v1.user.UserService;
 import com.auxby.usermanager.api.v1.user.model.UserDetailsInfo;
 import com.auxby.usermanager.config.properties.KeycloakProps;
-import com.auxby.usermanager.entity.UserDetails;
 import com.auxby.usermanager.exception.SignInException;
 import com.auxby.usermanager.exception.UserEmailNotValidatedException;
+import com.auxby.usermanager.utils.metrics.DependencyMetrics;
+import com.auxby.usermanager.utils.service.GoogleIdTokenService;
 import com.auxby.usermanager.utils.service.KeycloakService;
 import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
-import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
-import com.google.api.client.http.javanet.NetHttpTransport;
-import com.google.api.client.json.JsonFactory;
-import com.google.api.client.json.gson.GsonFactory;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.keycloak.representations.idm.UserRepresentation;
 import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
 import javax.validation.Valid;
 import java.io.IOException;
 import java.security.GeneralSecurityException;
-import java.util.Arrays;
-import java.util.List;
+import java.util.Optional;
 
-import static com.auxby.usermanager.utils.constant.AppConstant.ANDROID_GOOGLE_CLIENT;
-import static com.auxby.usermanager.utils.constant.AppConstant.IOS_GOOGLE_CLIENT;
+import static com.auxby.usermanager.utils.metrics.DependencyMetrics.GOOGLE;
+import static com.auxby.usermanager.utils.metrics.DependencyMetrics.KEYCLOAK;
 import static org.keycloak.OAuth2Constants.*;
 
 @Service
@@ -39,80 +36,79 @@ import static org.keycloak.OAuth2Constants.*;
 public class AuthService {
     private final UserService userService;
     private final KeycloakService keycloakService;
+    private final EmailVerifiedCache emailVerifiedCache;
+    private final GoogleIdTokenService googleIdTokenService;
 
     private final WebClient webClient;
     private final KeycloakProps keycloakProps;
-
-    public AuthResponse login(AuthInfo authInfo) {
-        verifyUserValidateEmailAddress(authInfo.email());
-        try {
-            KeycloakAuthResponse response = keycloakService.performLogin(authInfo);
-            return new AuthResponse(response.access_token());
-        } catch (WebClientResponseException | NullPointerException exception) {
-            throw new SignInException("Login user " + authInfo.email() + " failed.");
-        }
+    private final Scheduler authBlockingScheduler;
+    private final DependencyMetrics dependencyMetrics;
+
+    public Mono<AuthResponse> loginAsync(AuthInfo authInfo) {
+        return verifyUserValidateEmailAddress(authInfo.email())
+                .then(Mono.defer(() -> keycloakService.performLoginAsync(authInfo)))
+                .map(response -> new AuthResponse(response.access_token()))
+                .switchIfEmpty(Mono.error(() -> new SignInException("Login user " + authInfo.email() + " failed.")))
+                .onErrorMap(WebClientResponseException.class,
+                        exception -> new SignInException("Login user " + authInfo.email() + " failed."));
     }
 
-    public boolean resetPassword(String email) {
-        return userService.sendResetPasswordLink(email);
+    public Mono<Boolean> resetPasswordAsync(String email) {
+        return findAccountUuid(email)
+                .flatMap(keycloakService::sendResetPasswordLinkAsync)
+                .thenReturn(true);
     }
 
-    public boolean resendVerificationLink(String email) {
-        UserDetails user = userService.findUser(email);
-        keycloakService.sendVerificationEmailLink(user.getAccountUuid());
-
-        return true;
+    public Mono<Boolean> resendVerificationLinkAsync(String email) {
+        return findAccountUuid(email)
+                .flatMap(keycloakService::sendVerificationEmailLinkAsync)
+                .thenReturn(true);
     }
 
     // TODO token exchange should be enabled for this method
-    public Boolean googleAuthTokenExchange(@Valid AuthGoogle authGoogle) {
-        try {
-            KeycloakAuthResponse response = webClient.post()
-                    .uri(keycloakProps.getAuthUrl())
-                    .body(BodyInserters.fromFormData(SUBJECT_TOKEN, authGoogle.token())
-                            .with(CLIENT_SECRET, keycloakProps.getClientSecret())
-                            .with(CLIENT_ID, keycloakProps.getClientId())
-                            .with(GRANT_TYPE, TOKEN_EXCHANGE_GRANT_TYPE)
-                            .with(SUBJECT_TOKEN_TYPE, JWT_TOKEN_TYPE)
-                            .with(SUBJECT_ISSUER, "google")
-                    )
-                    .retrieve()
-                    .bodyToFlux(KeycloakAuthResponse.class)
-                    .blockFirst();
-            assert response != null;
-            log.info("Google Auth " + response.access_token());
-            return true;
-        } catch (WebClientResponseException exception) {
-            throw new SignInException("Google auth token exchange failed.");
-        }
+    public Mono<Boolean> googleAuthTokenExchange(@Valid AuthGoogle authGoogle) {
+        return dependencyMetrics.recordAsync(KEYCLOAK, "token-exchange", webClient.post()
+                        .uri(keycloakProps.getAuthUrl())
+                        .body(BodyInserters.fromFormData(SUBJECT_TOKEN, authGoogle.token())
+                                .with(CLIENT_SECRET, keycloakProps.getClientSecret())
+                                .with(CLIENT_ID, keycloakProps.getClientId())
+                                .with(GRANT_TYPE, TOKEN_EXCHANGE_GRANT_TYPE)
+                                .with(SUBJECT_TOKEN_TYPE, JWT_TOKEN_TYPE)
+                                .with(SUBJECT_ISSUER, "google")
+                        )
+                        .retrieve()
+                        .bodyToMono(KeycloakAuthResponse.class))
+                .doOnNext(response -> log.info("Google Auth " + response.access_token()))
+                .map(response -> true)
+                .onErrorMap(WebClientResponseException.class,
+                        exception -> new SignInException("Google auth token exchange failed."));
     }
 
-    public AuthResponse googleAuth(@Valid AuthGoogle authGoogle) {
-        try {
-            UserDetailsInfo googleUserDetails = getGoogleUserDetails(authGoogle);
-            registerGoogleUser(googleUserDetails);
-            return login(new AuthInfo(googleUserDetails.email(), googleUserDetails.password()));
-        } catch (Exception exception) {
-            throw new SignInException(exception.getLocalizedMessage());
-        }
+    public Mono<AuthResponse> googleAuthAsync(@Valid AuthGoogle authGoogle) {
+        return getGoogleUserDetails(authGoogle)
+                .flatMap(googleUserDetails -> registerGoogleUser(googleUserDetails)
+                        .then(Mono.defer(() -> loginAsync(new AuthInfo(googleUserDetails.email(), googleUserDetails.password())))))
+                .onErrorMap(exception -> new SignInException(exception.getLocalizedMessage()));
     }
 
-    private void registerGoogleUser(UserDetailsInfo userDetailsInfo) {
-        if (userService.isGoogleAccount(userDetailsInfo.email())) return;
-        userService.createUser(userDetailsInfo, true);
+    // user creation writes to the database and goes through the blocking keycloak admin client
+    private Mono<Void> registerGoogleUser(UserDetailsInfo userDetailsInfo) {
+        return Mono.fromRunnable(() -> {
+                    if (userService.isGoogleAccount(userDetailsInfo.email())) return;
+                    userService.createUser(userDetailsInfo, true);
+                })
+                .subscribeOn(authBlockingScheduler)
+                .then();
     }
 
-    public GoogleUserInfo getUserInfoByAccessToken(String accessToken) {
-        try {
-            return webClient.get()
-                    .uri("https://www.googleapis.com/oauth2/v2/userinfo")
-                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
-                    .retrieve()
-                    .bodyToMono(GoogleUserInfo.class)
-                    .block();
-        } catch (WebClientResponseException e) {
-            throw new SignInException("Google failed: Invalid access token.");
-        }
+    public Mono<GoogleUserInfo> getUserInfoByAccessToken(String accessToken) {
+        return dependencyMetrics.recordAsync(GOOGLE, "userinfo", webClient.get()
+                        .uri("https://www.googleapis.com/oauth2/v2/userinfo")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
+                        .retrieve()
+                        .bodyToMono(GoogleUserInfo.class))
+                .onErrorMap(WebClientResponseException.class,
+                        exception -> new SignInException("Google failed: Invalid access token."));
     }
 
     public UserDetailsInfo getUserDetailsByIdToken(String token) throws GeneralSecurityException, IOException {
@@ -120,21 +116,9 @@ public class AuthService {
             throw new SignInException("Google failed: Invalid ID token.");
         }
 
-        NetHttpTransport transport = new NetHttpTransport();
-        JsonFactory jsonFactory = new GsonFactory();
-
-        List<String> clientIDs = Arrays.asList(
-                IOS_GOOGLE_CLIENT,
-                ANDROID_GOOGLE_CLIENT);
-        GoogleIdTokenVerifier verifier = new GoogleIdTokenVerifier.Builder(transport, jsonFactory)
-                .setAudience(clientIDs)
-                .build();
-
-        GoogleIdToken idToken = GoogleIdToken.parse(verifier.getJsonFactory(), token);
-        boolean tokenIsValid = verifier.verify(idToken);
-
-        if (tokenIsValid) {
-            GoogleIdToken.Payload payload = idToken.getPayload();
+        Optional<GoogleIdToken.Payload> verifiedPayload = googleIdTokenService.verify(token);
+        if (verifiedPayload.isPresent()) {
+            GoogleIdToken.Payload payload = verifiedPayload.get();
             String userPwd = "Pwd." + payload.getSubject();
             String email = payload.getEmail();
             String familyName = (String) payload.get("family_name");
@@ -146,30 +130,39 @@ public class AuthService {
         }
     }
 
-    private UserDetailsInfo getGoogleUserDetails(@Valid AuthGoogle authGoogle) throws GeneralSecurityException, IOException {
-
+    private Mono<UserDetailsInfo> getGoogleUserDetails(@Valid AuthGoogle authGoogle) {
         if (authGoogle.token() == null) {
-            GoogleUserInfo googleUserInfo = getUserInfoByAccessToken(authGoogle.accessToken());
-            String userPwd = "Pwd." + googleUserInfo.id();
-            return new UserDetailsInfo(
-                    googleUserInfo.family_name(),
-                    googleUserInfo.given_name(),
-                    userPwd,
-                    googleUserInfo.email(),
-                    new AddressInfo("", ""), "",
-                    googleUserInfo.picture()
-            );
-        } else {
-            return getUserDetailsByIdToken(authGoogle.token());
+            return getUserInfoByAccessToken(authGoogle.accessToken())
+                    .map(googleUserInfo -> new UserDetailsInfo(
+                            googleUserInfo.family_name(),
+                            googleUserInfo.given_name(),
+                            "Pwd." + googleUserInfo.id(),
+                            googleUserInfo.email(),
+                            new AddressInfo("", ""), "",
+                            googleUserInfo.picture()
+                    ));
         }
+        // the google public keys are refreshed ahead of expiry in the background, verifying is cpu only
+        return Mono.fromCallable(() -> getUserDetailsByIdToken(authGoogle.token()));
+    }
 
+    private Mono<Void> verifyUserValidateEmailAddress(String email) {
+        return findAccountUuid(email)
+                .filter(accountUuid -> !emailVerifiedCache.isVerified(accountUuid))
+                .flatMap(accountUuid -> keycloakService.getUserRepresentationAsync(accountUuid)
+                        .<Void>handle((userRepresentation, sink) -> {
+                            if (Boolean.FALSE.equals(userRepresentation.isEmailVerified())) {
+                                sink.error(new UserEmailNotValidatedException(email));
+                                return;
+                            }
+                            emailVerifiedCache.markVerified(accountUuid);
+                        }))
+                .then();
     }
 
-    private void verifyUserValidateEmailAddress(String email) {
-        UserDetails user = userService.findUser(email);
-        UserRepresentation userRepresentation = keycloakService.getUserRepresentation(user.getAccountUuid());
-        if (Boolean.FALSE.equals(userRepresentation.isEmailVerified())) {
-            throw new UserEmailNotValidatedException(email);
-        }
+    // the repository lookup blocks, it runs on the bounded auth pool instead of a request or event loop thread
+    private Mono<String> findAccountUuid(String email) {
+        return Mono.fromCallable(() -> userService.findAccountUuid(email))
+                .subscribeOn(authBlockingScheduler);
     }
-}
\ No newline at end of file
+}
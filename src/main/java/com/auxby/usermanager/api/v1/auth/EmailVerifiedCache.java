@@ -0,0 +1,34 @@
+package com.auxby.usermanager.api.v1.auth;
+
+import com.auxby.usermanager.config.properties.CacheProps;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+@Component
+public class EmailVerifiedCache {
+    private static final String CACHE_NAME = "email-verified";
+
+    // only positive results are stored, a verified email address never becomes unverified
+    private final Cache<String, Boolean> verifiedAccounts;
+
+    public EmailVerifiedCache(CacheProps cacheProps, MeterRegistry meterRegistry) {
+        CacheProps.Spec spec = cacheProps.getEmailVerified();
+        verifiedAccounts = Caffeine.newBuilder()
+                .maximumSize(spec.getMaxSize())
+                .expireAfterWrite(spec.getTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedAccounts, CACHE_NAME);
+    }
+
+    public boolean isVerified(String accountUuid) {
+        return verifiedAccounts.getIfPresent(accountUuid) != null;
+    }
+
+    public void markVerified(String accountUuid) {
+        verifiedAccounts.put(accountUuid, Boolean.TRUE);
+    }
+}
@@ -8,12 +8,10 @@ import com.auxby.usermanager.utils.constant.AppConstant;
 import com.stripe.exception.StripeException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @RestController
@@ -22,9 +20,10 @@ import javax.validation.Valid;
 public class PaymentController {
 
     private final StripePaymentService stripePaymentService;
+    private final StripeWebhookService stripeWebhookService;
 
     @PostMapping("/create-payment-intent")
-    public PaymentResponse createPaymentIntent(@Valid @RequestBody PaymentRequest paymentRequest) throws StripeException {
+    public CompletableFuture<PaymentResponse> createPaymentIntent(@Valid @RequestBody PaymentRequest paymentRequest) {
         log.info("POST - trigger a payment.");
         return stripePaymentService.createPaymentIntent(paymentRequest, SecurityContextUtil.getUserId());
     }
@@ -34,4 +33,11 @@ public class PaymentController {
         log.info("POST - add bundle resources to user after payment succeeded.");
         stripePaymentService.confirmedPayment(confirmedPaymentRequest, SecurityContextUtil.getUserId());
     }
+
+    @PostMapping("/payment/webhook")
+    public void handleStripeWebhook(@RequestBody String payload,
+                                    @RequestHeader("Stripe-Signature") String signature) throws StripeException {
+        log.info("POST - stripe webhook event.");
+        stripeWebhookService.accept(payload, signature);
+    }
 }
@@ -2,9 +2,23 @@ package com.auxby.usermanager.api.v1.payment;
 
 import com.auxby.usermanager.entity.PaymentHistory;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
+import javax.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface PaymentHistoryRepository extends JpaRepository<PaymentHistory, Integer> {
-    Optional<PaymentHistory> findByPaymentSecretAndAccountUuidAndStatus(String secret, String accountUuid, String status);
+    Optional<PaymentHistory> findByPaymentSecretAndAccountUuid(String secret, String accountUuid);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<PaymentHistory> findByPaymentIntentIdInAndStatus(Collection<String> paymentIntentIds, String status);
+
+    // only an INTENT can succeed, the webhook and the client confirmation race for the same payment
+    @Modifying
+    @Query("update PaymentHistory p set p.status = 'SUCCEEDED' where p.id in :ids and p.status = 'INTENT'")
+    int markSucceeded(Collection<Integer> ids);
 }
@@ -4,64 +4,67 @@ import com.auxby.usermanager.api.v1.payment.model.ConfirmedPaymentRequest;
 import com.auxby.usermanager.api.v1.payment.model.PaymentRequest;
 import com.auxby.usermanager.api.v1.payment.model.PaymentResponse;
 import com.auxby.usermanager.api.v1.user.UserService;
+import com.auxby.usermanager.api.v1.user.model.UserIdentity;
 import com.auxby.usermanager.entity.PaymentHistory;
-import com.auxby.usermanager.entity.UserDetails;
-import com.stripe.Stripe;
-import com.stripe.exception.StripeException;
+import com.auxby.usermanager.utils.service.StripeGateway;
 import com.stripe.model.PaymentIntent;
 import com.stripe.param.PaymentIntentCreateParams;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import javax.annotation.PostConstruct;
 import javax.persistence.EntityNotFoundException;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static com.auxby.usermanager.utils.enums.PaymentStatusEnum.INTENT;
-import static com.auxby.usermanager.utils.enums.PaymentStatusEnum.SUCCEEDED;
 
 @Service
 @RequiredArgsConstructor
 public class StripePaymentService {
-    @Value("${stripe.secret-key}")
-    private String secretKey;
-
     private final PaymentHistoryRepository paymentHistoryRepository;
     private final UserService userService;
+    private final StripeGateway stripeGateway;
 
-    @PostConstruct
-    public void setup() {
-        Stripe.apiKey = secretKey;
-    }
-
-    public PaymentResponse createPaymentIntent(PaymentRequest paymentRequest, String userId) throws StripeException {
-        UserDetails userDetails = userService.findUserDetails(userId);
+    public CompletableFuture<PaymentResponse> createPaymentIntent(PaymentRequest paymentRequest, String userId) {
+        UserIdentity user = userService.findUserIdentity(userId);
         PaymentIntentCreateParams paymentIntentParams = new PaymentIntentCreateParams.Builder()
                 .setAmount(computePaymentAmount(paymentRequest))
                 .addPaymentMethodType(paymentRequest.paymentType())
-                .setReceiptEmail(userDetails.getUserName())
+                .setReceiptEmail(user.userName())
                 .setCurrency(paymentRequest.currency())
                 .build();
-        PaymentIntent paymentIntent = PaymentIntent.create(paymentIntentParams);
-        savePayment(paymentIntent.getClientSecret(), userId);
-
-        return new PaymentResponse(paymentIntent.getClientSecret());
+        return stripeGateway.execute("payment-intent-create", options -> PaymentIntent.create(paymentIntentParams, options))
+                .thenApply(paymentIntent -> {
+                    savePayment(paymentIntent, paymentRequest.coins(), userId);
+                    return new PaymentResponse(paymentIntent.getClientSecret());
+                });
     }
 
     @Transactional
     public void confirmedPayment(ConfirmedPaymentRequest confirmedPaymentRequest,
                                  String userUuid) {
-        PaymentHistory payment = paymentHistoryRepository.findByPaymentSecretAndAccountUuidAndStatus(confirmedPaymentRequest.clientSecret(), userUuid, INTENT.name())
+        PaymentHistory payment = paymentHistoryRepository.findByPaymentSecretAndAccountUuid(confirmedPaymentRequest.clientSecret(), userUuid)
                 .orElseThrow(() -> new EntityNotFoundException("Payment intent not found!"));
-        payment.setStatus(SUCCEEDED.name());
-        userService.addUserResources(confirmedPaymentRequest.coins(), userUuid);
+        // already confirmed, e.g. by the stripe webhook
+        if (paymentHistoryRepository.markSucceeded(List.of(payment.getId())) == 0) {
+            return;
+        }
+        Integer coins = payment.getCoins() != null ? payment.getCoins() : confirmedPaymentRequest.coins();
+        // addUserResources evicts the cached profile
+        userService.addUserResources(coins, userUuid, paymentReference(payment));
+    }
+
+    static String paymentReference(PaymentHistory payment) {
+        return "payment:" + payment.getId();
     }
 
-    private void savePayment(String clientSecret, String userUuid) {
+    private void savePayment(PaymentIntent paymentIntent, Integer coins, String userUuid) {
         PaymentHistory paymentHistory = new PaymentHistory();
-        paymentHistory.setPaymentSecret(clientSecret);
+        paymentHistory.setPaymentSecret(paymentIntent.getClientSecret());
+        paymentHistory.setPaymentIntentId(paymentIntent.getId());
+        paymentHistory.setCoins(coins);
         paymentHistory.setIntentDate(new Date());
         paymentHistory.setAccountUuid(userUuid);
         paymentHistory.setStatus(INTENT.name());
@@ -0,0 +1,28 @@
+package com.auxby.usermanager.api.v1.payment;
+
+import com.auxby.usermanager.entity.StripeWebhookEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+public interface StripeWebhookEventRepository extends JpaRepository<StripeWebhookEvent, String> {
+    // stripe delivers at least once, a redelivered event id is dropped here
+    @Modifying
+    @Transactional
+    @Query(value = "insert into stripe_webhook_event (event_id, payment_intent_id, status, received_at) " +
+            "values (:eventId, :paymentIntentId, 'PENDING', :receivedAt) on conflict (event_id) do nothing", nativeQuery = true)
+    int insertIfAbsent(String eventId, String paymentIntentId, Date receivedAt);
+
+    @Query(value = "select * from stripe_webhook_event where status = 'PENDING' " +
+            "order by received_at limit :limit for update skip locked", nativeQuery = true)
+    List<StripeWebhookEvent> claimPending(int limit);
+
+    @Modifying
+    @Query("update StripeWebhookEvent e set e.status = com.auxby.usermanager.utils.enums.WebhookEventStatus.PROCESSED, e.processedAt = :processedAt where e.eventId in :eventIds")
+    int markProcessed(Collection<String> eventIds, Date processedAt);
+}
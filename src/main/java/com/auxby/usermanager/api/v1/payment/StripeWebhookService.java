@@ -0,0 +1,87 @@
+package com.auxby.usermanager.api.v1.payment;
+
+import com.auxby.usermanager.api.v1.user.CoinLedgerService;
+import com.auxby.usermanager.api.v1.user.UserCacheInvalidator;
+import com.auxby.usermanager.api.v1.user.model.CoinCredit;
+import com.auxby.usermanager.config.properties.StripeWebhookProps;
+import com.auxby.usermanager.entity.PaymentHistory;
+import com.auxby.usermanager.entity.StripeWebhookEvent;
+import com.auxby.usermanager.utils.enums.CoinChangeReason;
+import com.stripe.exception.SignatureVerificationException;
+import com.stripe.exception.StripeException;
+import com.stripe.model.Event;
+import com.stripe.model.EventDataObjectDeserializer;
+import com.stripe.model.PaymentIntent;
+import com.stripe.model.StripeObject;
+import com.stripe.net.Webhook;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static com.auxby.usermanager.utils.enums.PaymentStatusEnum.INTENT;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class StripeWebhookService {
+    static final String PAYMENT_INTENT_SUCCEEDED = "payment_intent.succeeded";
+    private final StripeWebhookEventRepository eventRepository;
+    private final PaymentHistoryRepository paymentHistoryRepository;
+    private final CoinLedgerService coinLedgerService;
+    private final UserCacheInvalidator userCacheInvalidator;
+    private final StripeWebhookProps webhookProps;
+
+    // the insert opens its own write transaction, a read-only one is rejected by postgres
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void accept(String payload, String signature) throws StripeException {
+        if (webhookProps.getSecret() == null || webhookProps.getSecret().isBlank()) {
+            throw new SignatureVerificationException("Stripe webhook secret is not configured.", signature);
+        }
+        Event event = Webhook.constructEvent(payload, signature, webhookProps.getSecret());
+        if (!PAYMENT_INTENT_SUCCEEDED.equals(event.getType())) {
+            return;
+        }
+        EventDataObjectDeserializer deserializer = event.getDataObjectDeserializer();
+        StripeObject paymentIntent = deserializer.getObject().isPresent()
+                ? deserializer.getObject().get()
+                : deserializer.deserializeUnsafe();
+        eventRepository.insertIfAbsent(event.getId(), ((PaymentIntent) paymentIntent).getId(), new Date());
+    }
+
+    @Transactional
+    public int processBatch() {
+        List<StripeWebhookEvent> events = eventRepository.claimPending(webhookProps.getBatchSize());
+        if (events.isEmpty()) {
+            return 0;
+        }
+        Set<String> paymentIntentIds = events.stream()
+                .map(StripeWebhookEvent::getPaymentIntentId)
+                .collect(Collectors.toSet());
+        // intents created without coins are still credited by the client confirmation
+        List<PaymentHistory> payments = paymentHistoryRepository.findByPaymentIntentIdInAndStatus(paymentIntentIds, INTENT.name())
+                .stream()
+                .filter(payment -> payment.getCoins() != null)
+                .toList();
+        if (!payments.isEmpty()) {
+            paymentHistoryRepository.markSucceeded(payments.stream().map(PaymentHistory::getId).toList());
+            coinLedgerService.creditAll(payments.stream()
+                    .map(payment -> new CoinCredit(payment.getAccountUuid(), payment.getCoins(), StripePaymentService.paymentReference(payment)))
+                    .toList(), CoinChangeReason.PURCHASE);
+            payments.stream()
+                    .map(PaymentHistory::getAccountUuid)
+                    .distinct()
+                    .forEach(userCacheInvalidator::invalidate);
+        }
+        eventRepository.markProcessed(events.stream().map(StripeWebhookEvent::getEventId).toList(), new Date());
+        log.info("Processed {} stripe events, {} payments succeeded.", events.size(), payments.size());
+        return events.size();
+    }
+}
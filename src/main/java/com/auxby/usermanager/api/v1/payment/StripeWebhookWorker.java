@@ -0,0 +1,49 @@
+package com.auxby.usermanager.api.v1.payment;
+
+import com.auxby.usermanager.config.properties.StripeWebhookProps;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.concurrent.ScheduledFuture;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StripeWebhookWorker {
+    private final StripeWebhookService stripeWebhookService;
+    private final StripeWebhookProps webhookProps;
+    private final TaskScheduler taskScheduler;
+
+    private ScheduledFuture<?> pollTask;
+
+    @PostConstruct
+    public void start() {
+        pollTask = taskScheduler.scheduleWithFixedDelay(this::drain,
+                Instant.now().plus(webhookProps.getPollInterval()), webhookProps.getPollInterval());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (pollTask != null) {
+            pollTask.cancel(false);
+        }
+    }
+
+    public void drain() {
+        try {
+            for (int batch = 1; batch <= webhookProps.getMaxBatchesPerPoll(); batch++) {
+                if (stripeWebhookService.processBatch() < webhookProps.getBatchSize()) {
+                    return;
+                }
+                log.debug("Stripe event batch full, continue draining.");
+            }
+        } catch (Exception exception) {
+            log.warn("Failed to process stripe events, retry on next poll.", exception);
+        }
+    }
+}
@@ -7,6 +7,7 @@ import javax.validation.constraints.NotNull;
 public record PaymentRequest(
         @NotNull(message = "Amount must be set.") @Min(value = 0, message = "Amount must positive.") Double amount,
         @NotNull(message = "Payment type must be set.") String paymentType,
-        @NotBlank(message = "Currency must be set.") String currency
+        @NotBlank(message = "Currency must be set.") String currency,
+        @Min(value = 1, message = "Coins must be positive.") Integer coins
 ) {
 }
@@ -0,0 +1,30 @@
+package com.auxby.usermanager.api.v1.user;
+
+import com.auxby.usermanager.entity.AccountDeletionJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface AccountDeletionJobRepository extends JpaRepository<AccountDeletionJob, Integer> {
+    Optional<AccountDeletionJob> findFirstByAccountUuidOrderByIdDesc(String accountUuid);
+
+    // a second request for an account with an active job is dropped by the partial unique index
+    @Modifying
+    @Query(value = "insert into account_deletion_job " +
+            "(id, account_uuid, user_id, stage, status, attempts, created_at, updated_at, next_attempt_at) " +
+            "values (nextval('account_deletion_job_id_seq'), :accountUuid, :userId, 'KEYCLOAK', 'PENDING', 0, :now, :now, :now) " +
+            "on conflict (account_uuid) where status in ('PENDING', 'RUNNING') do nothing", nativeQuery = true)
+    int insertIfNoActiveJob(String accountUuid, Integer userId, Date now);
+
+    @Query(value = "select * from account_deletion_job " +
+            "where (status = 'PENDING' and next_attempt_at <= :now) " +
+            "or (status = 'RUNNING' and updated_at < :staleBefore) " +
+            "order by id limit :limit for update skip locked", nativeQuery = true)
+    List<AccountDeletionJob> findClaimableJobs(Date now, Date staleBefore, int limit);
+}
@@ -0,0 +1,102 @@
+package com.auxby.usermanager.api.v1.user;
+
+import com.auxby.usermanager.api.v1.user.model.DeletionStatusResponse;
+import com.auxby.usermanager.config.properties.AccountDeletionProps;
+import com.auxby.usermanager.entity.AccountDeletionJob;
+import com.auxby.usermanager.entity.UserDetails;
+import com.auxby.usermanager.utils.enums.DeletionJobStage;
+import com.auxby.usermanager.utils.enums.DeletionJobStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityNotFoundException;
+import java.util.Date;
+import java.util.List;
+
+import static com.auxby.usermanager.utils.enums.DeletionJobStatus.PENDING;
+import static com.auxby.usermanager.utils.enums.DeletionJobStatus.RUNNING;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class AccountDeletionService {
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private final AccountDeletionJobRepository jobRepository;
+    private final UserRepository userRepository;
+    private final AccountDeletionProps accountDeletionProps;
+
+    @Transactional
+    public void requestDeletion(UserDetails userDetails) {
+        jobRepository.insertIfNoActiveJob(userDetails.getAccountUuid(), userDetails.getId(), new Date());
+    }
+
+    public DeletionStatusResponse getDeletionStatus(String userUuid) {
+        return jobRepository.findFirstByAccountUuidOrderByIdDesc(userUuid)
+                .map(job -> new DeletionStatusResponse(job.getStatus(), job.getStage(), job.getCreatedAt(), job.getUpdatedAt()))
+                .orElseThrow(() -> new EntityNotFoundException("Deletion request not found."));
+    }
+
+    public AccountDeletionJob findJob(Integer jobId) {
+        return jobRepository.findById(jobId)
+                .orElseThrow(() -> new EntityNotFoundException("Deletion job not found."));
+    }
+
+    @Transactional
+    public List<Integer> claimJobs(int limit) {
+        Date now = new Date();
+        Date staleBefore = new Date(now.getTime() - accountDeletionProps.getLease().toMillis());
+        List<AccountDeletionJob> jobs = jobRepository.findClaimableJobs(now, staleBefore, limit);
+        jobs.forEach(job -> {
+            job.setStatus(RUNNING);
+            job.setUpdatedAt(now);
+        });
+        return jobs.stream()
+                .map(AccountDeletionJob::getId)
+                .toList();
+    }
+
+    @Transactional
+    public void releaseJob(Integer jobId) {
+        AccountDeletionJob job = findJob(jobId);
+        job.setStatus(PENDING);
+        job.setUpdatedAt(new Date());
+    }
+
+    @Transactional
+    public void deleteUserData(Integer userId) {
+        userRepository.findById(userId)
+                .ifPresent(userRepository::delete);
+    }
+
+    @Transactional
+    public AccountDeletionJob completeStage(Integer jobId) {
+        AccountDeletionJob job = findJob(jobId);
+        DeletionJobStage nextStage = job.getStage().next();
+        job.setStage(nextStage);
+        job.setStatus(nextStage == DeletionJobStage.COMPLETED ? DeletionJobStatus.COMPLETED : RUNNING);
+        job.setAttempts(0);
+        job.setLastError(null);
+        job.setUpdatedAt(new Date());
+        return job;
+    }
+
+    @Transactional
+    public void failStage(Integer jobId, String error) {
+        AccountDeletionJob job = findJob(jobId);
+        Date now = new Date();
+        job.setAttempts(job.getAttempts() + 1);
+        job.setLastError(error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+        job.setUpdatedAt(now);
+        if (job.getAttempts() >= accountDeletionProps.getMaxAttempts()) {
+            log.error("Account deletion job {} failed at stage {} after {} attempts.", jobId, job.getStage(), job.getAttempts());
+            job.setStatus(DeletionJobStatus.FAILED);
+            return;
+        }
+        long backoff = accountDeletionProps.getRetryBackoff().toMillis() << (job.getAttempts() - 1);
+        job.setStatus(PENDING);
+        job.setNextAttemptAt(new Date(now.getTime() + backoff));
+    }
+}
@@ -0,0 +1,100 @@
+package com.auxby.usermanager.api.v1.user;
+
+import com.auxby.usermanager.config.properties.AccountDeletionProps;
+import com.auxby.usermanager.entity.AccountDeletionJob;
+import com.auxby.usermanager.utils.enums.DeletionJobStage;
+import com.auxby.usermanager.utils.service.AmazonClientService;
+import com.auxby.usermanager.utils.service.KeycloakService;
+import com.auxby.usermanager.utils.service.model.PurgeResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.ws.rs.NotFoundException;
+import java.util.List;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AccountDeletionWorker {
+    private final AccountDeletionService accountDeletionService;
+    private final KeycloakService keycloakService;
+    private final AmazonClientService awsService;
+    private final UserCacheInvalidator userCacheInvalidator;
+    private final AccountDeletionProps accountDeletionProps;
+    private final TaskScheduler taskScheduler;
+    @Qualifier("accountDeletionExecutor")
+    private final ThreadPoolTaskExecutor accountDeletionExecutor;
+
+    @PostConstruct
+    public void start() {
+        taskScheduler.scheduleWithFixedDelay(this::poll, accountDeletionProps.getPollInterval());
+    }
+
+    public void poll() {
+        int freeWorkers = accountDeletionProps.getWorkers() - accountDeletionExecutor.getActiveCount();
+        if (freeWorkers <= 0) {
+            return;
+        }
+        List<Integer> jobIds;
+        try {
+            jobIds = accountDeletionService.claimJobs(freeWorkers);
+        } catch (Exception exception) {
+            log.warn("Failed to claim account deletion jobs.", exception);
+            return;
+        }
+        for (Integer jobId : jobIds) {
+            try {
+                accountDeletionExecutor.execute(() -> process(jobId));
+            } catch (TaskRejectedException exception) {
+                accountDeletionService.releaseJob(jobId);
+            }
+        }
+    }
+
+    public void process(Integer jobId) {
+        AccountDeletionJob job = accountDeletionService.findJob(jobId);
+        while (job.getStage() != DeletionJobStage.COMPLETED) {
+            try {
+                executeStage(job);
+            } catch (Exception exception) {
+                log.warn("Account deletion job {} failed at stage {}.", jobId, job.getStage(), exception);
+                accountDeletionService.failStage(jobId, exception.getMessage());
+                return;
+            }
+            job = accountDeletionService.completeStage(jobId);
+        }
+        log.info("Account deletion job {} completed.", jobId);
+    }
+
+    private void executeStage(AccountDeletionJob job) {
+        switch (job.getStage()) {
+            case KEYCLOAK -> deleteKeycloakUser(job.getAccountUuid());
+            case S3 -> deleteAwsResources(job.getAccountUuid());
+            case DATABASE -> {
+                accountDeletionService.deleteUserData(job.getUserId());
+                userCacheInvalidator.invalidate(job.getAccountUuid());
+            }
+            default -> throw new IllegalStateException("Unexpected deletion stage " + job.getStage());
+        }
+    }
+
+    private void deleteKeycloakUser(String accountUuid) {
+        try {
+            keycloakService.deleteKeycloakUser(accountUuid);
+        } catch (NotFoundException exception) {
+            log.info("Keycloak user already deleted.");
+        }
+    }
+
+    private void deleteAwsResources(String accountUuid) {
+        awsService.deleteUserAvatar(accountUuid);
+        PurgeResult purgeResult = awsService.purgeUserResources(accountUuid);
+        log.info("Removed {} offer resources ({} bytes) of the deleted user.", purgeResult.objects(), purgeResult.bytes());
+    }
+}
@@ -0,0 +1,45 @@
+package com.auxby.usermanager.api.v1.user;
+
+import com.auxby.usermanager.config.properties.CoinLedgerProps;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.concurrent.ScheduledFuture;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CoinLedgerCompactor {
+    private final CoinLedgerService coinLedgerService;
+    private final CoinLedgerProps coinLedgerProps;
+    private final TaskScheduler taskScheduler;
+
+    private ScheduledFuture<?> compactionTask;
+
+    @PostConstruct
+    public void start() {
+        compactionTask = taskScheduler.scheduleWithFixedDelay(this::compact,
+                Instant.now().plus(coinLedgerProps.getCompactionInterval()), coinLedgerProps.getCompactionInterval());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (compactionTask != null) {
+            compactionTask.cancel(false);
+        }
+    }
+
+    public void compact() {
+        try {
+            int accounts = coinLedgerService.compact();
+            log.info("Compacted the coin ledger of {} accounts.", accounts);
+        } catch (Exception exception) {
+            log.warn("Coin ledger compaction failed, retry on next run.", exception);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.auxby.usermanager.api.v1.user;
+
+import com.auxby.usermanager.entity.CoinLedgerEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+import java.util.List;
+
+@Repository
+public interface CoinLedgerRepository extends JpaRepository<CoinLedgerEntry, Integer> {
+    List<CoinLedgerEntry> findByAccountUuidOrderByIdDesc(String accountUuid, Pageable pageable);
+
+    @Query(value = "select pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+    boolean tryAdvisoryLock(long key);
+
+    // folds the entries of every account with more than one entry older than before into a single one, in one statement.
+    // the cutoff is by age, ids are handed out in pooled blocks and are not ordered by time across instances
+    @Modifying
+    @Query(value = "with folded as (" +
+            "delete from coin_ledger where created_at < :before and account_uuid in (" +
+            "select account_uuid from coin_ledger where created_at < :before group by account_uuid having count(*) > 1) " +
+            "returning account_uuid, delta, created_at) " +
+            "insert into coin_ledger (account_uuid, delta, reason, created_at) " +
+            "select account_uuid, sum(delta), 'COMPACTED', max(created_at) from folded group by account_uuid", nativeQuery = true)
+    int compactBefore(Date before);
+}
@@ -0,0 +1,92 @@
+package com.auxby.usermanager.api.v1.user;
+
+import com.auxby.usermanager.api.v1.user.model.CoinChangeResponse;
+import com.auxby.usermanager.api.v1.user.model.CoinCredit;
+import com.auxby.usermanager.api.v1.user.model.CoinHistoryResponse;
+import com.auxby.usermanager.config.properties.CoinLedgerProps;
+import com.auxby.usermanager.entity.CoinLedgerEntry;
+import com.auxby.usermanager.entity.UserDetails;
+import com.auxby.usermanager.utils.enums.CoinChangeReason;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityNotFoundException;
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class CoinLedgerService {
+    private static final long COMPACTION_LOCK = 2_016_001L;
+    private final CoinLedgerRepository ledgerRepository;
+    private final UserRepository userRepository;
+    private final CoinLedgerProps coinLedgerProps;
+
+    @Transactional
+    public void credit(String accountUuid, int coins, CoinChangeReason reason, String reference) {
+        if (coins <= 0) {
+            throw new IllegalArgumentException("Credited coins must be positive.");
+        }
+        if (userRepository.addAvailableCoins(accountUuid, coins) == 0) {
+            throw new EntityNotFoundException("User not found.");
+        }
+        ledgerRepository.save(entry(accountUuid, coins, reason, reference));
+    }
+
+    @Transactional
+    public void creditAll(List<CoinCredit> credits, CoinChangeReason reason) {
+        Map<String, Integer> coinsPerAccount = credits.stream()
+                .collect(Collectors.groupingBy(CoinCredit::accountUuid, Collectors.summingInt(CoinCredit::coins)));
+        Set<String> creditedAccounts = new HashSet<>();
+        coinsPerAccount.forEach((accountUuid, coins) -> {
+            // the account may have been deleted meanwhile
+            if (userRepository.addAvailableCoins(accountUuid, coins) > 0) {
+                creditedAccounts.add(accountUuid);
+            }
+        });
+        ledgerRepository.saveAll(credits.stream()
+                .filter(credit -> creditedAccounts.contains(credit.accountUuid()))
+                .map(credit -> entry(credit.accountUuid(), credit.coins(), reason, credit.reference()))
+                .toList());
+    }
+
+    // the user row and its opening entry commit together, a failed ledger write leaves no user behind
+    @Transactional
+    public UserDetails saveWithOpeningBalance(UserDetails userDetails) {
+        UserDetails savedUser = userRepository.save(userDetails);
+        ledgerRepository.save(entry(savedUser.getAccountUuid(), savedUser.getAvailableCoins(), CoinChangeReason.SIGNUP_BONUS, null));
+        return savedUser;
+    }
+
+    public CoinHistoryResponse getHistory(String accountUuid, int page, int size) {
+        Integer availableCoins = userRepository.findAvailableCoins(accountUuid)
+                .orElseThrow(() -> new EntityNotFoundException("User not found."));
+        PageRequest pageRequest = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), coinLedgerProps.getMaxPageSize()));
+        return new CoinHistoryResponse(availableCoins, ledgerRepository.findByAccountUuidOrderByIdDesc(accountUuid, pageRequest)
+                .stream()
+                .map(entry -> new CoinChangeResponse(entry.getDelta(), entry.getReason(), entry.getCreatedAt()))
+                .toList());
+    }
+
+    @Transactional
+    public int compact() {
+        // another instance is already compacting
+        if (!ledgerRepository.tryAdvisoryLock(COMPACTION_LOCK)) {
+            return 0;
+        }
+        return ledgerRepository.compactBefore(new Date(System.currentTimeMillis() - coinLedgerProps.getRetention().toMillis()));
+    }
+
+    private CoinLedgerEntry entry(String accountUuid, int coins, CoinChangeReason reason, String reference) {
+        CoinLedgerEntry entry = new CoinLedgerEntry();
+        entry.setAccountUuid(accountUuid);
+        entry.setDelta(coins);
+        entry.setReason(reason);
+        entry.setReference(reference);
+        entry.setCreatedAt(new Date());
+        return entry;
+    }
+}
@@ -0,0 +1,131 @@
+package com.auxby.usermanager.api.v1.user;
+
+import com.auxby.usermanager.config.properties.CacheProps;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component
+public class UserCacheInvalidationListener {
+    private final UserProfileCache userProfileCache;
+    private final UserNameIndex userNameIndex;
+    private final DataSourceProperties dataSourceProperties;
+    private final CacheProps.Invalidation invalidation;
+    private final Counter receivedCounter;
+    private final Counter evictedCounter;
+
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    public UserCacheInvalidationListener(UserProfileCache userProfileCache,
+                                         UserNameIndex userNameIndex,
+                                         DataSourceProperties dataSourceProperties,
+                                         CacheProps cacheProps,
+                                         MeterRegistry meterRegistry) {
+        this.userProfileCache = userProfileCache;
+        this.userNameIndex = userNameIndex;
+        this.dataSourceProperties = dataSourceProperties;
+        this.invalidation = cacheProps.getInvalidation();
+        this.receivedCounter = meterRegistry.counter("cache.invalidation.notifications", "result", "received");
+        this.evictedCounter = meterRegistry.counter("cache.invalidation.notifications", "result", "evicted");
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!invalidation.isEnabled()) {
+            return;
+        }
+        running = true;
+        listenerThread = new Thread(this::listen, "user-cache-invalidation");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+
+    private void listen() {
+        boolean reconnecting = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN \"" + invalidation.getChannel() + "\"");
+                    statement.execute("LISTEN \"" + invalidation.getUserNameChannel() + "\"");
+                }
+                // whatever was published while this instance was not listening is lost
+                userProfileCache.evictAll();
+                if (reconnecting) {
+                    userNameIndex.requestRebuild();
+                }
+                reconnecting = true;
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    receive(pgConnection);
+                }
+            } catch (SQLException exception) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Cache invalidation listener disconnected, reconnecting in {}.", invalidation.getReconnectBackoff(), exception);
+                try {
+                    TimeUnit.MILLISECONDS.sleep(invalidation.getReconnectBackoff().toMillis());
+                } catch (InterruptedException interruptedException) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void receive(PGConnection connection) throws SQLException {
+        Set<String> accountUuids = new HashSet<>();
+        Set<String> userNames = new HashSet<>();
+        if (!collect(connection.getNotifications((int) invalidation.getPollTimeout().toMillis()), accountUuids, userNames)) {
+            return;
+        }
+        long deadline = System.nanoTime() + invalidation.getCoalesceWindow().toNanos();
+        long remainingMillis;
+        while ((remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())) > 0) {
+            collect(connection.getNotifications((int) remainingMillis), accountUuids, userNames);
+        }
+        accountUuids.forEach(userProfileCache::evict);
+        userNames.forEach(userNameIndex::add);
+        evictedCounter.increment(accountUuids.size());
+    }
+
+    private boolean collect(PGNotification[] notifications, Set<String> accountUuids, Set<String> userNames) {
+        if (notifications == null || notifications.length == 0) {
+            return false;
+        }
+        receivedCounter.increment(notifications.length);
+        for (PGNotification notification : notifications) {
+            if (invalidation.getUserNameChannel().equals(notification.getName())) {
+                userNames.add(notification.getParameter());
+            } else {
+                accountUuids.add(notification.getParameter());
+            }
+        }
+        return true;
+    }
+}
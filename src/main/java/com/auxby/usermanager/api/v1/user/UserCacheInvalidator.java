@@ -0,0 +1,25 @@
+package com.auxby.usermanager.api.v1.user;
+
+import com.auxby.usermanager.config.properties.CacheProps;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class UserCacheInvalidator {
+    private final UserProfileCache userProfileCache;
+    private final JdbcTemplate jdbcTemplate;
+    private final CacheProps cacheProps;
+
+    public void invalidate(String accountUuid) {
+        userProfileCache.evict(accountUuid);
+        CacheProps.Invalidation invalidation = cacheProps.getInvalidation();
+        if (invalidation.isEnabled()) {
+            // postgres delivers the notification only when the surrounding transaction commits
+            jdbcTemplate.query("select pg_notify(?, ?)", (RowCallbackHandler) resultSet -> {
+            }, invalidation.getChannel(), accountUuid);
+        }
+    }
+}
@@ -19,6 +19,8 @@ import javax.validation.Valid;
 public class UserController {
 
     private final UserService userService;
+    private final AccountDeletionService accountDeletionService;
+    private final CoinLedgerService coinLedgerService;
 
     @PostMapping
     public UserDetailsResponse createUser(@Valid @RequestBody UserDetailsInfo detailsInfo) {
@@ -38,12 +40,31 @@ public class UserController {
         return userService.updateUser(SecurityContextUtil.getUserId(), userDto);
     }
 
+    @PatchMapping
+    public UserDetailsResponse patchUser(@Valid @RequestBody PatchUserInfo patch) {
+        log.info("PATCH - update user profile fields.");
+        return userService.patchUser(SecurityContextUtil.getUserId(), patch);
+    }
+
     @DeleteMapping
     public Boolean deleteUser() {
         log.info("DELETE - delete user.");
         return userService.deleteUser(SecurityContextUtil.getUserId());
     }
 
+    @GetMapping("/deletion-status")
+    public DeletionStatusResponse getDeletionStatus() {
+        log.info("GET - get user deletion status.");
+        return accountDeletionService.getDeletionStatus(SecurityContextUtil.getUserId());
+    }
+
+    @GetMapping("/coins/history")
+    public CoinHistoryResponse getCoinHistory(@RequestParam(defaultValue = "0") int page,
+                                              @RequestParam(defaultValue = "20") int size) {
+        log.info("GET - get user coin history.");
+        return coinLedgerService.getHistory(SecurityContextUtil.getUserId(), page, size);
+    }
+
     @GetMapping("/email/check")
     public Boolean checkUserExists(@RequestParam String email) {
         log.info("POST - check user exists.");
@@ -67,4 +88,10 @@ public class UserController {
         log.info("Add device token.");
         return userService.addDeviceToken(SecurityContextUtil.getUserId(), dto.deviceToken());
     }
+
+    @PostMapping("/device-tokens")
+    public Boolean addDeviceTokens(@Valid @RequestBody DeviceTokensDto dto) {
+        log.info("Add device tokens.");
+        return userService.addDeviceTokens(SecurityContextUtil.getUserId(), dto.deviceTokens());
+    }
 }
@@ -2,8 +2,15 @@ package com.auxby.usermanager.api.v1.user;
 
 import com.auxby.usermanager.entity.UserDevices;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface UserDevicesRepository extends JpaRepository<UserDevices, Integer> {
+    @Modifying
+    @Query(value = "insert into user_devices (id, user_id, device_key) " +
+            "values (nextval('user_devices_id_seq'), :userId, :deviceKey) " +
+            "on conflict (user_id, device_key) do nothing", nativeQuery = true)
+    int insertIfAbsent(Integer userId, String deviceKey);
 }
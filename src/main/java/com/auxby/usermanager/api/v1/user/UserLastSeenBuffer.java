@@ -0,0 +1,97 @@
+package com.auxby.usermanager.api.v1.user;
+
+import com.auxby.usermanager.config.properties.LastSeenProps;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserLastSeenBuffer {
+    private static final String UPDATE_LAST_SEEN = "update user_details set last_seen = ? where account_uuid = ?";
+    private final JdbcTemplate jdbcTemplate;
+    private final LastSeenProps lastSeenProps;
+    private final TaskScheduler taskScheduler;
+
+    private final ConcurrentMap<String, Long> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private ScheduledFuture<?> flushTask;
+
+    @PostConstruct
+    public void start() {
+        flushTask = taskScheduler.scheduleWithFixedDelay(this::flush, lastSeenProps.getFlushInterval());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (flushTask != null) {
+            flushTask.cancel(false);
+        }
+        // waits for a scheduled flush still running, touches it missed are written here
+        flushLock.lock();
+        try {
+            writePending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    public void touch(String uuid) {
+        pending.put(uuid, System.currentTimeMillis());
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    public void flush() {
+        if (pending.isEmpty() || !flushLock.tryLock()) {
+            return;
+        }
+        try {
+            writePending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void writePending() {
+        List<Map.Entry<String, Long>> batch = new ArrayList<>(lastSeenProps.getMaxBatchSize());
+        for (Map.Entry<String, Long> entry : pending.entrySet()) {
+            batch.add(Map.entry(entry.getKey(), entry.getValue()));
+            if (batch.size() == lastSeenProps.getMaxBatchSize()) {
+                writeBatch(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            writeBatch(batch);
+        }
+    }
+
+    // one jdbc batch per flush batch, every user keeps its own last touch
+    private void writeBatch(List<Map.Entry<String, Long>> batch) {
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_LAST_SEEN, batch, batch.size(), (statement, entry) -> {
+                statement.setTimestamp(1, new Timestamp(entry.getValue()));
+                statement.setString(2, entry.getKey());
+            });
+            // a touch recorded while writing replaced the value and stays for the next flush
+            batch.forEach(entry -> pending.remove(entry.getKey(), entry.getValue()));
+        } catch (Exception exception) {
+            log.warn("Failed to flush last seen for {} users, retry on next flush.", batch.size(), exception);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.auxby.usermanager.api.v1.user;
+
+import com.auxby.usermanager.config.properties.CacheProps;
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Slf4j
+@Component
+public class UserNameIndex {
+    private final JdbcTemplate jdbcTemplate;
+    private final TaskScheduler taskScheduler;
+    private final CacheProps.UserNameIndex indexProps;
+    private final CacheProps.Invalidation invalidation;
+    private final Counter negativeCounter;
+    private final Counter possibleCounter;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // null until the first load finished, every name is then a possible match
+    private volatile BloomFilter<CharSequence> userNames;
+    private volatile long expectedInsertions;
+    private List<String> addedDuringRebuild;
+    private boolean rebuildRequested;
+    private ScheduledFuture<?> rebuildTask;
+
+    public UserNameIndex(JdbcTemplate jdbcTemplate,
+                         TaskScheduler taskScheduler,
+                         CacheProps cacheProps,
+                         MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.taskScheduler = taskScheduler;
+        this.indexProps = cacheProps.getUserNameIndex();
+        this.invalidation = cacheProps.getInvalidation();
+        this.negativeCounter = meterRegistry.counter("user.name.index.lookups", "result", "negative");
+        this.possibleCounter = meterRegistry.counter("user.name.index.lookups", "result", "possible");
+        Gauge.builder("user.name.index.size", this, index -> index.userNames == null ? 0 : index.userNames.approximateElementCount())
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        rebuildTask = taskScheduler.scheduleWithFixedDelay(this::rebuild, Instant.now(), indexProps.getRebuildInterval());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (rebuildTask != null) {
+            rebuildTask.cancel(false);
+        }
+    }
+
+    public boolean mightContain(String userName) {
+        BloomFilter<CharSequence> current = userNames;
+        boolean possible = current == null || current.mightContain(userName);
+        (possible ? possibleCounter : negativeCounter).increment();
+        return possible;
+    }
+
+    public void register(String userName) {
+        add(userName);
+        if (!invalidation.isEnabled()) {
+            return;
+        }
+        try {
+            jdbcTemplate.query("select pg_notify(?, ?)", (RowCallbackHandler) resultSet -> {
+            }, invalidation.getUserNameChannel(), userName);
+        } catch (Exception exception) {
+            log.warn("Failed to publish the new user name, other instances see it after their next rebuild.", exception);
+        }
+    }
+
+    public void add(String userName) {
+        lock.lock();
+        try {
+            if (addedDuringRebuild != null) {
+                addedDuringRebuild.add(userName);
+            }
+            if (userNames == null) {
+                return;
+            }
+            userNames.put(userName);
+            if (userNames.approximateElementCount() > expectedInsertions && !rebuildRequested) {
+                rebuildRequested = true;
+                taskScheduler.schedule(this::rebuild, Instant.now());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void requestRebuild() {
+        taskScheduler.schedule(this::rebuild, Instant.now());
+    }
+
+    public void rebuild() {
+        lock.lock();
+        try {
+            if (addedDuringRebuild != null) {
+                return;
+            }
+            addedDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.unlock();
+        }
+        BloomFilter<CharSequence> next = null;
+        try {
+            next = load();
+        } catch (Exception exception) {
+            log.warn("Failed to load the user name index, keep the previous one.", exception);
+        } finally {
+            lock.lock();
+            try {
+                if (next != null) {
+                    addedDuringRebuild.forEach(next::put);
+                    userNames = next;
+                    rebuildRequested = false;
+                }
+                addedDuringRebuild = null;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private BloomFilter<CharSequence> load() {
+        Long users = jdbcTemplate.queryForObject("select count(*) from user_details", Long.class);
+        long expected = Math.max(indexProps.getMinExpectedInsertions(), 2 * (users == null ? 0 : users));
+        BloomFilter<CharSequence> filter = BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8), expected, indexProps.getFalsePositiveRate());
+        jdbcTemplate.query("select user_name from user_details where user_name is not null",
+                (RowCallbackHandler) resultSet -> filter.put(resultSet.getString(1)));
+        expectedInsertions = expected;
+        return filter;
+    }
+}
@@ -0,0 +1,76 @@
+package com.auxby.usermanager.api.v1.user;
+
+import com.auxby.usermanager.api.v1.user.model.UserDetailsResponse;
+import com.auxby.usermanager.config.properties.CacheProps;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+@Component
+public class UserProfileCache {
+    private static final String CACHE_NAME = "user-profile";
+
+    private final AsyncCache<String, UserDetailsResponse> profiles;
+
+    public UserProfileCache(CacheProps cacheProps, MeterRegistry meterRegistry) {
+        CacheProps.Spec spec = cacheProps.getUserProfile();
+        profiles = Caffeine.newBuilder()
+                .maximumSize(spec.getMaxSize())
+                .expireAfterWrite(spec.getTtl())
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, profiles, CACHE_NAME);
+    }
+
+    // the loader runs outside the map's bin lock, a database read there would pin a virtual thread to its carrier
+    public UserDetailsResponse get(String accountUuid, Function<String, UserDetailsResponse> loader) {
+        CompletableFuture<UserDetailsResponse> load = new CompletableFuture<>();
+        CompletableFuture<UserDetailsResponse> profile = profiles.get(accountUuid, (uuid, executor) -> load);
+        if (profile == load) {
+            try {
+                load.complete(loader.apply(accountUuid));
+            } catch (Throwable exception) {
+                // a failed future is dropped from the cache, the next read loads again. errors must complete it
+                // too, an incomplete future would block every later read of the key
+                load.completeExceptionally(exception);
+                throw exception;
+            }
+        }
+        try {
+            return profile.join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (exception.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw exception;
+        }
+    }
+
+    public void evictAll() {
+        profiles.synchronous().invalidateAll();
+    }
+
+    public void evict(String accountUuid) {
+        profiles.synchronous().invalidate(accountUuid);
+        // a read running concurrently with the writing transaction can cache the old row again, evict once more after it ends
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    profiles.synchronous().invalidate(accountUuid);
+                }
+            });
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.auxby.usermanager.api.v1.user;
 
+import com.auxby.usermanager.api.v1.user.model.UserIdentity;
 import com.auxby.usermanager.entity.UserDetails;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -12,17 +13,31 @@ import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<UserDetails, Integer> {
-    @EntityGraph(attributePaths = {"addresses", "contacts"})
-    Optional<UserDetails> findUserDetailsByUserName(String userName);
-
     @EntityGraph(attributePaths = {"addresses", "contacts"})
     Optional<UserDetails> findUserDetailsByAccountUuid(String uuid);
 
-    @Query(value = "SELECT DISTINCT ON(product_id) user_id FROM bid ORDER BY product_id , price DESC", nativeQuery = true)
-    List<Integer> getTopBidderIdForOffers();
+    boolean existsByUserName(String userName);
+
+    @Query("select u.id from UserDetails u where u.accountUuid = :uuid")
+    Optional<Integer> findIdByAccountUuid(String uuid);
+
+    @Query("select new com.auxby.usermanager.api.v1.user.model.UserIdentity(u.id, u.accountUuid, u.userName, u.firstName, u.lastName) " +
+            "from UserDetails u where u.accountUuid = :uuid")
+    Optional<UserIdentity> findIdentityByAccountUuid(String uuid);
+
+    @Query("select u.accountUuid from UserDetails u where u.userName = :userName")
+    Optional<String> findAccountUuidByUserName(String userName);
+
+    @Query("select coalesce(u.isGoogleAccount, false) from UserDetails u where u.userName = :userName")
+    Optional<Boolean> findIsGoogleAccountByUserName(String userName);
+
+    @Query("select coalesce(u.availableCoins, 0) from UserDetails u where u.accountUuid = :uuid")
+    Optional<Integer> findAvailableCoins(String uuid);
 
     @Modifying
-    @Query(value = "update user_details set last_seen = current_timestamp " +
-            "where account_uuid = :uuid", nativeQuery = true)
-    void updateUserLastSeen(String uuid);
+    @Query("update UserDetails u set u.availableCoins = coalesce(u.availableCoins, 0) + :coins where u.accountUuid = :uuid")
+    int addAvailableCoins(String uuid, int coins);
+
+    @Query(value = "SELECT DISTINCT ON(product_id) user_id FROM bid ORDER BY product_id , price DESC", nativeQuery = true)
+    List<Integer> getTopBidderIdForOffers();
 }
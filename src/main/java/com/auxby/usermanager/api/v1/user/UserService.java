@@ -6,12 +6,13 @@ import com.auxby.usermanager.api.v1.user.model.*;
 import com.auxby.usermanager.entity.Address;
 import com.auxby.usermanager.entity.Contact;
 import com.auxby.usermanager.entity.UserDetails;
-import com.auxby.usermanager.entity.UserDevices;
 import com.auxby.usermanager.exception.ChangePasswordException;
 import com.auxby.usermanager.exception.RegistrationException;
+import com.auxby.usermanager.utils.enums.CoinChangeReason;
 import com.auxby.usermanager.utils.enums.ContactType;
 import com.auxby.usermanager.utils.service.AmazonClientService;
 import com.auxby.usermanager.utils.service.KeycloakService;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.keycloak.OAuth2Constants;
@@ -19,6 +20,7 @@ import org.keycloak.representations.idm.CredentialRepresentation;
 import org.keycloak.representations.idm.UserRepresentation;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
@@ -28,6 +30,7 @@ import javax.validation.constraints.NotBlank;
 import javax.ws.rs.core.Response;
 import java.io.IOException;
 import java.util.*;
+import java.util.function.Supplier;
 
 import static com.auxby.usermanager.utils.constant.AppConstant.defaultAvailableCoins;
 
@@ -37,46 +40,54 @@ import static com.auxby.usermanager.utils.constant.AppConstant.defaultAvailableC
 @Transactional(readOnly = true)
 public class UserService {
     private static final String UNKNOWN = "Unknown";
+    private static final String REGISTRATION_STAGE_TIMER = "user.registration.stage";
     private final UserRepository userRepository;
     private final AmazonClientService awsService;
     private final KeycloakService keycloakService;
     private final UserDevicesRepository devicesRepository;
-
-    @Transactional
+    private final AccountDeletionService accountDeletionService;
+    private final UserProfileCache userProfileCache;
+    private final UserCacheInvalidator userCacheInvalidator;
+    private final UserNameIndex userNameIndex;
+    private final CoinLedgerService coinLedgerService;
+    private final MeterRegistry meterRegistry;
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public UserDetailsResponse createUser(UserDetailsInfo userInfo, Boolean isEmailVerified) {
-        try (Response response = keycloakService.performCreateUser(createUserRepresentation(userInfo, isEmailVerified))) {
-            if (response.getStatus() != HttpStatus.CREATED.value()) {
-                throw new RegistrationException("User registration failed. " + response.getStatusInfo().getReasonPhrase());
+        String accountUuid = registrationStage("keycloak-create", () -> createKeycloakUser(userInfo, isEmailVerified));
+        try {
+            registrationStage("keycloak-role", () -> keycloakService.addUserRole(accountUuid));
+            UserDetails userDetails = mapToUserDetails(userInfo, accountUuid);
+            Set<Contact> contacts = getUserContacts(userInfo.email(), userInfo.phone());
+            contacts.forEach(userDetails::addContact);
+            if (userInfo.address() != null) {
+                Address addresses = getUserAddress(userInfo.address());
+                userDetails.addAddress(addresses);
+            }
+            if (userInfo.avatarUrl() != null) {
+                userDetails.setAvatarUrl(userInfo.avatarUrl());
             }
-            UserDetails userDetails = mapToUserDetails(userInfo);
-            try {
-                Set<Contact> contacts = getUserContacts(userInfo.email(), userInfo.phone());
-                contacts.forEach(userDetails::addContact);
-                if (userInfo.address() != null) {
-                    Address addresses = getUserAddress(userInfo.address());
-                    userDetails.addAddress(addresses);
-                }
-                if (userInfo.avatarUrl() != null) {
-                    userDetails.setAvatarUrl(userInfo.avatarUrl());
-                }
-                userDetails.setAvailableCoins(defaultAvailableCoins);
-                userDetails.setIsGoogleAccount(isEmailVerified);
-                UserDetails newUser = userRepository.save(userDetails);
-                if (Boolean.FALSE.equals(isEmailVerified)) {
-                    sendEmailVerificationLink(userDetails);
-                }
-                return mapToUserDetailsInfo(newUser, newUser.getContacts(), newUser.getAddresses());
-            } catch (Exception ex) {
-                keycloakService.deleteKeycloakUser(userDetails.getAccountUuid());
-                throw new RegistrationException("Something went wrong. User registration failed:" + ex.getMessage());
+            userDetails.setAvailableCoins(defaultAvailableCoins);
+            userDetails.setIsGoogleAccount(isEmailVerified);
+            UserDetails newUser = registrationStage("db-save", () -> coinLedgerService.saveWithOpeningBalance(userDetails));
+            userNameIndex.register(newUser.getUserName());
+            if (Boolean.FALSE.equals(isEmailVerified)) {
+                registrationStage("verification-email", () -> sendEmailVerificationLink(newUser));
             }
+            return mapToUserDetailsInfo(newUser, newUser.getContacts(), newUser.getAddresses());
+        } catch (Exception ex) {
+            keycloakService.deleteKeycloakUser(accountUuid);
+            throw new RegistrationException("Something went wrong. User registration failed:" + ex.getMessage());
         }
     }
 
-
+    // cache hits must not check out a connection, the loader's repository call opens its own transaction
+    @Transactional(propagation = Propagation.SUPPORTS)
     public UserDetailsResponse getUser(String userUuid) {
-        UserDetails userDetails = findUserDetails(userUuid);
-        return mapToUserDetailsInfo(userDetails, userDetails.getContacts(), userDetails.getAddresses());
+        return userProfileCache.get(userUuid, uuid -> {
+            UserDetails userDetails = findUserDetails(uuid);
+            return mapToUserDetailsInfo(userDetails, userDetails.getContacts(), userDetails.getAddresses());
+        });
     }
 
     @Transactional
@@ -84,66 +95,57 @@ public class UserService {
         UserDetails userDetails = findUserDetails(userUuid);
         // TODO notify Interrupted offer
         // notify all bidder
-        keycloakService.deleteKeycloakUser(userDetails.getAccountUuid());
-        deleteUserAwsResources(userUuid, userDetails);
-        userRepository.deleteById(userDetails.getId());
+        accountDeletionService.requestDeletion(userDetails);
+        userCacheInvalidator.invalidate(userUuid);
 
-        return userRepository.findUserDetailsByAccountUuid(userUuid).isEmpty();
+        return true;
     }
 
     public Boolean checkUserExists(String userName) {
-        Optional<UserDetails> userDetails = userRepository
-                .findUserDetailsByUserName(userName);
-
-        return userDetails.isPresent();
+        if (!userNameIndex.mightContain(userName)) {
+            return false;
+        }
+        return userRepository.existsByUserName(userName);
     }
 
     @Transactional
     public UserDetailsResponse updateUser(String userUuid, UpdateUserInfo userDetails) {
         UserDetails user = findUserDetails(userUuid);
-
-        UserRepresentation userRepresentation = new UserRepresentation();
-        userRepresentation.setEnabled(true);
-        userRepresentation.setEmailVerified(true);
-        userRepresentation.setLastName(userDetails.lastName());
-        userRepresentation.setFirstName(userDetails.firstName());
-
-        keycloakService.performUserUpdate(user.getAccountUuid(), userRepresentation);
-        user.setLastName(userDetails.lastName());
-        user.setFirstName(userDetails.firstName());
-
-        var userAddresses = new ArrayList<>(user.getAddresses());
-        var userContacts = new ArrayList<>(user.getContacts());
-        userAddresses.forEach(user::removeAddress);
-        userContacts.stream().filter(c -> c.getType().equals(ContactType.PHONE))
-                .forEach(user::removeContact);
-
-        Set<Contact> contacts = getUserContacts(null, userDetails.phone());
-        contacts.forEach(user::addContact);
-        if (userDetails.address() != null) {
-            Address addresses = getUserAddress(userDetails.address());
-            user.addAddress(addresses);
+        boolean changed = updateNames(user, userDetails.lastName(), userDetails.firstName());
+        changed |= updatePhone(user, userDetails.phone());
+        changed |= updateAddress(user, userDetails.address());
+        if (changed) {
+            userCacheInvalidator.invalidate(userUuid);
         }
 
         return mapToUserDetailsInfo(user, user.getContacts(), user.getAddresses());
     }
 
-    public boolean sendResetPasswordLink(String email) {
-        UserDetails userDetails = findUser(email);
-        keycloakService.sendResetPasswordLink(userDetails.getAccountUuid());
+    @Transactional
+    public UserDetailsResponse patchUser(String userUuid, PatchUserInfo patch) {
+        UserDetails user = findUserDetails(userUuid);
+        boolean changed = updateNames(user,
+                Objects.requireNonNullElse(patch.lastName(), user.getLastName()),
+                Objects.requireNonNullElse(patch.firstName(), user.getFirstName()));
+        if (patch.phone() != null) {
+            changed |= updatePhone(user, patch.phone());
+        }
+        if (patch.address() != null) {
+            changed |= updateAddress(user, patch.address());
+        }
+        if (changed) {
+            userCacheInvalidator.invalidate(userUuid);
+        }
 
-        return true;
+        return mapToUserDetailsInfo(user, user.getContacts(), user.getAddresses());
     }
 
     public Boolean isGoogleAccount(String email) {
-        UserDetails userDetails = new UserDetails();
-        userDetails.setIsGoogleAccount(false);
-        UserDetails localUser = userRepository.findUserDetailsByUserName(email).orElse(userDetails);
-        return localUser.getIsGoogleAccount();
+        return userRepository.findIsGoogleAccountByUserName(email).orElse(false);
     }
 
-    public UserDetails findUser(String userName) {
-        return userRepository.findUserDetailsByUserName(userName)
+    public String findAccountUuid(String userName) {
+        return userRepository.findAccountUuidByUserName(userName)
                 .orElseThrow(() -> new EntityNotFoundException(String.format("Username %s not found.", userName)));
     }
 
@@ -153,6 +155,7 @@ public class UserService {
             String avatarUrl = awsService.uploadAvatar(avatar, userUuid);
             Optional<UserDetails> userDetails = userRepository.findUserDetailsByAccountUuid(userUuid);
             userDetails.ifPresent(details -> details.setAvatarUrl(avatarUrl));
+            userCacheInvalidator.invalidate(userUuid);
 
             return new UploadAvatarResponse(avatarUrl);
         } catch (IOException exception) {
@@ -161,18 +164,18 @@ public class UserService {
     }
 
     public Boolean changePassword(ChangePasswordDto changePasswordDto, String userUuid) {
-        UserDetails userDetails = findUserDetails(userUuid);
-        AuthInfo authInfo = new AuthInfo(userDetails.getUserName(), changePasswordDto.oldPassword());
+        UserIdentity user = findUserIdentity(userUuid);
+        AuthInfo authInfo = new AuthInfo(user.userName(), changePasswordDto.oldPassword());
         try {
             keycloakService.performLogin(authInfo);
         } catch (WebClientResponseException exception) {
-            throw new ChangePasswordException(userDetails.getUserName());
+            throw new ChangePasswordException(user.userName());
         }
         UserRepresentation userRepresentation = new UserRepresentation();
         userRepresentation.setEnabled(true);
         userRepresentation.setEmailVerified(true);
-        userRepresentation.setLastName(userDetails.getLastName());
-        userRepresentation.setFirstName(userDetails.getFirstName());
+        userRepresentation.setLastName(user.lastName());
+        userRepresentation.setFirstName(user.firstName());
         userRepresentation.setCredentials(Collections.singletonList(getCredentialRepresentation(changePasswordDto.newPassword())));
         keycloakService.performUserUpdate(userUuid, userRepresentation);
 
@@ -180,19 +183,9 @@ public class UserService {
     }
 
     @Transactional
-    public void addUserResources(Integer coins, String userUuid) {
-        UserDetails user = findUserDetails(userUuid);
-        if (Objects.isNull(user.getAvailableCoins())) {
-            user.setAvailableCoins(coins);
-        } else {
-            Integer totalCoins = coins + user.getAvailableCoins();
-            user.setAvailableCoins(totalCoins);
-        }
-    }
-
-    @Transactional
-    public void updateUserLastSeen(String uuid) {
-        userRepository.updateUserLastSeen(uuid);
+    public void addUserResources(Integer coins, String userUuid, String reference) {
+        coinLedgerService.credit(userUuid, coins, CoinChangeReason.PURCHASE, reference);
+        userCacheInvalidator.invalidate(userUuid);
     }
 
     public UserDetails findUserDetails(String userUuid) {
@@ -200,21 +193,22 @@ public class UserService {
                 .orElseThrow(() -> new EntityNotFoundException("User not found."));
     }
 
+    public UserIdentity findUserIdentity(String userUuid) {
+        return userRepository.findIdentityByAccountUuid(userUuid)
+                .orElseThrow(() -> new EntityNotFoundException("User not found."));
+    }
+
     @Transactional
     public Boolean addDeviceToken(String userUuid, String deviceToken) {
-        var userDevice = new UserDevices();
-        userDevice.setUserId(findUserDetails(userUuid).getId());
-        userDevice.setDeviceKey(deviceToken);
-        devicesRepository.save(userDevice);
-        return true;
+        return addDeviceTokens(userUuid, List.of(deviceToken));
     }
 
-    private void deleteUserAwsResources(String userUuid, UserDetails userDetails) {
-        awsService.deleteUserAvatar(userUuid);
-        userDetails.getOffers()
-                .forEach(
-                        offer -> awsService.deleteOfferResources(userUuid, offer.getId())
-                );
+    @Transactional
+    public Boolean addDeviceTokens(String userUuid, Collection<String> deviceTokens) {
+        Integer userId = userRepository.findIdByAccountUuid(userUuid)
+                .orElseThrow(() -> new EntityNotFoundException("User not found."));
+        new LinkedHashSet<>(deviceTokens).forEach(deviceToken -> devicesRepository.insertIfAbsent(userId, deviceToken));
+        return true;
     }
 
     private UserRepresentation createUserRepresentation(UserDetailsInfo userInfo, Boolean isEmailVerified) {
@@ -275,21 +269,37 @@ public class UserService {
         return email.getValue();
     }
 
-    private UserDetails mapToUserDetails(UserDetailsInfo userInfo) {
+    private String createKeycloakUser(UserDetailsInfo userInfo, Boolean isEmailVerified) {
+        try (Response response = keycloakService.performCreateUser(createUserRepresentation(userInfo, isEmailVerified))) {
+            if (response.getStatus() != HttpStatus.CREATED.value()) {
+                throw new RegistrationException("User registration failed. " + response.getStatusInfo().getReasonPhrase());
+            }
+            String accountUuid = keycloakService.getCreatedUserId(response);
+            if (accountUuid == null) {
+                throw new RegistrationException("User not found.");
+            }
+            return accountUuid;
+        }
+    }
+
+    private UserDetails mapToUserDetails(UserDetailsInfo userInfo, String accountUuid) {
         UserDetails userDetails = new UserDetails();
         userDetails.setGender(UNKNOWN);
         userDetails.setLastName(userInfo.lastName());
         userDetails.setFirstName(userInfo.firstName());
         userDetails.setUserName(userInfo.email());
-        var keycloakUser = keycloakService.getKeycloakUser(userInfo.email());
-        if (keycloakUser.isEmpty()) {
-            throw new RegistrationException("User not found.");
-        }
-        userDetails.setAccountUuid(keycloakUser.get().getId());
-        keycloakService.addUserRole(keycloakUser.get().getId());
+        userDetails.setAccountUuid(accountUuid);
         return userDetails;
     }
 
+    private <T> T registrationStage(String stage, Supplier<T> action) {
+        return meterRegistry.timer(REGISTRATION_STAGE_TIMER, "stage", stage).record(action);
+    }
+
+    private void registrationStage(String stage, Runnable action) {
+        meterRegistry.timer(REGISTRATION_STAGE_TIMER, "stage", stage).record(action);
+    }
+
     private Address getUserAddress(AddressInfo address) {
         Address userAddress = new Address();
         userAddress.setCity(address.city());
@@ -299,6 +309,62 @@ public class UserService {
         return userAddress;
     }
 
+    private boolean updateNames(UserDetails user, String lastName, String firstName) {
+        if (Objects.equals(user.getLastName(), lastName) && Objects.equals(user.getFirstName(), firstName)) {
+            return false;
+        }
+        UserRepresentation userRepresentation = new UserRepresentation();
+        userRepresentation.setEnabled(true);
+        userRepresentation.setEmailVerified(true);
+        userRepresentation.setLastName(lastName);
+        userRepresentation.setFirstName(firstName);
+
+        keycloakService.performUserUpdate(user.getAccountUuid(), userRepresentation);
+        user.setLastName(lastName);
+        user.setFirstName(firstName);
+        return true;
+    }
+
+    // keeps the existing row and its id, only the changed value is written on flush
+    private boolean updatePhone(UserDetails user, String phone) {
+        List<Contact> phones = user.getContacts().stream()
+                .filter(contact -> ContactType.PHONE.equals(contact.getType()))
+                .toList();
+        if (phones.isEmpty()) {
+            user.addContact(getUserPhone(phone));
+            return true;
+        }
+        boolean changed = phones.size() > 1;
+        phones.stream().skip(1).forEach(user::removeContact);
+        Contact current = phones.get(0);
+        if (!Objects.equals(current.getValue(), phone)) {
+            current.setValue(phone);
+            changed = true;
+        }
+        return changed;
+    }
+
+    private boolean updateAddress(UserDetails user, AddressInfo address) {
+        List<Address> addresses = new ArrayList<>(user.getAddresses());
+        if (address == null) {
+            addresses.forEach(user::removeAddress);
+            return !addresses.isEmpty();
+        }
+        if (addresses.isEmpty()) {
+            user.addAddress(getUserAddress(address));
+            return true;
+        }
+        boolean changed = addresses.size() > 1;
+        addresses.stream().skip(1).forEach(user::removeAddress);
+        Address current = addresses.get(0);
+        if (!Objects.equals(current.getCity(), address.city()) || !Objects.equals(current.getCountry(), address.country())) {
+            current.setCity(address.city());
+            current.setCountry(address.country());
+            changed = true;
+        }
+        return changed;
+    }
+
     private Set<Contact> getUserContacts(String email, String phone) {
         Set<Contact> contacts = new HashSet<>();
         if (email != null) {
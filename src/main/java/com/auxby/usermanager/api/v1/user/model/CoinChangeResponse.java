@@ -0,0 +1,10 @@
+package com.auxby.usermanager.api.v1.user.model;
+
+import com.auxby.usermanager.utils.enums.CoinChangeReason;
+
+import java.util.Date;
+
+public record CoinChangeResponse(Integer delta,
+                                 CoinChangeReason reason,
+                                 Date createdAt) {
+}
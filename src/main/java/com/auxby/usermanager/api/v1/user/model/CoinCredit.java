@@ -0,0 +1,6 @@
+package com.auxby.usermanager.api.v1.user.model;
+
+public record CoinCredit(String accountUuid,
+                         int coins,
+                         String reference) {
+}
@@ -0,0 +1,7 @@
+package com.auxby.usermanager.api.v1.user.model;
+
+import java.util.List;
+
+public record CoinHistoryResponse(Integer availableCoins,
+                                  List<CoinChangeResponse> changes) {
+}
@@ -0,0 +1,12 @@
+package com.auxby.usermanager.api.v1.user.model;
+
+import com.auxby.usermanager.utils.enums.DeletionJobStage;
+import com.auxby.usermanager.utils.enums.DeletionJobStatus;
+
+import java.util.Date;
+
+public record DeletionStatusResponse(DeletionJobStatus status,
+                                     DeletionJobStage stage,
+                                     Date requestedAt,
+                                     Date updatedAt) {
+}
@@ -0,0 +1,9 @@
+package com.auxby.usermanager.api.v1.user.model;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+public record DeviceTokensDto(@NotEmpty @Size(max = 20) List<@NotBlank String> deviceTokens) {
+}
@@ -0,0 +1,15 @@
+package com.auxby.usermanager.api.v1.user.model;
+
+import com.auxby.usermanager.api.v1.address.model.AddressInfo;
+
+import javax.validation.constraints.Pattern;
+
+import static com.auxby.usermanager.utils.constant.AppConstant.NOT_BLANK_REGEX;
+import static com.auxby.usermanager.utils.constant.AppConstant.VALID_PHONE_REGEX;
+
+// fields left out of the request (or null) keep their current value
+public record PatchUserInfo(@Pattern(regexp = NOT_BLANK_REGEX, message = "Last name must not be blank.") String lastName,
+                            @Pattern(regexp = NOT_BLANK_REGEX, message = "First name must not be blank.") String firstName,
+                            AddressInfo address,
+                            @Pattern(regexp = VALID_PHONE_REGEX, message = "Invalid phone number.") String phone) {
+}
@@ -0,0 +1,8 @@
+package com.auxby.usermanager.api.v1.user.model;
+
+public record UserIdentity(Integer id,
+                           String accountUuid,
+                           String userName,
+                           String firstName,
+                           String lastName) {
+}
@@ -0,0 +1,30 @@
+package com.auxby.usermanager.config;
+
+import com.auxby.usermanager.config.properties.AccountDeletionProps;
+import com.auxby.usermanager.utils.VirtualThreads;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+@RequiredArgsConstructor
+public class AccountDeletionConfig {
+
+    private final AccountDeletionProps accountDeletionProps;
+    private final VirtualThreads virtualThreads;
+
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor accountDeletionExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(accountDeletionProps.getWorkers());
+        executor.setMaxPoolSize(accountDeletionProps.getWorkers());
+        // jobs are only claimed when a worker is free, claimed jobs never wait in a queue
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("account-deletion-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        virtualThreads.apply(executor);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -2,11 +2,17 @@ package com.auxby.usermanager.config;
 
 import com.amazonaws.auth.AWSStaticCredentialsProvider;
 import com.amazonaws.auth.BasicAWSCredentials;
+import com.amazonaws.client.builder.AwsClientBuilder;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.AmazonS3ClientBuilder;
+import com.auxby.usermanager.utils.VirtualThreads;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.StringUtils;
+
+import java.util.concurrent.ThreadPoolExecutor;
 
 @Configuration
 public class AmazonConfig {
@@ -16,13 +22,39 @@ public class AmazonConfig {
     private String accessKey;
     @Value("${aws.secretKey}")
     private String secretKey;
+    @Value("${aws.service-endpoint:}")
+    private String serviceEndpoint;
+    @Value("${aws.purge.threads:4}")
+    private int purgeThreads;
+    @Value("${aws.purge.queue-capacity:16}")
+    private int purgeQueueCapacity;
 
     @Bean
     public AmazonS3 amazonS3() {
         AWSStaticCredentialsProvider credentials = new AWSStaticCredentialsProvider(new BasicAWSCredentials(accessKey, secretKey));
-        return AmazonS3ClientBuilder.standard()
-                .withRegion(region)
-                .withCredentials(credentials)
-                .build();
+        AmazonS3ClientBuilder builder = AmazonS3ClientBuilder.standard()
+                .withCredentials(credentials);
+        if (StringUtils.hasText(serviceEndpoint)) {
+            // S3 compatible stores (MinIO, load-test fakes) are addressed by path, not by bucket sub-domain
+            builder.withEndpointConfiguration(new AwsClientBuilder.EndpointConfiguration(serviceEndpoint, region))
+                    .withPathStyleAccessEnabled(true);
+        } else {
+            builder.withRegion(region);
+        }
+        return builder.build();
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor s3PurgeExecutor(VirtualThreads virtualThreads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(purgeThreads);
+        executor.setMaxPoolSize(purgeThreads);
+        executor.setQueueCapacity(purgeQueueCapacity);
+        executor.setThreadNamePrefix("s3-purge-");
+        // the listing thread deletes the batch itself when all workers are busy
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        virtualThreads.apply(executor);
+        executor.initialize();
+        return executor;
     }
 }
@@ -0,0 +1,44 @@
+package com.auxby.usermanager.config;
+
+import com.auxby.usermanager.config.properties.GoogleAuthProps;
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
+import com.google.api.client.googleapis.auth.oauth2.GooglePublicKeysManager;
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.api.client.json.JsonFactory;
+import com.google.api.client.json.gson.GsonFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@RequiredArgsConstructor
+public class GoogleAuthConfiguration {
+
+    private final GoogleAuthProps googleAuthProps;
+
+    @Bean
+    public HttpTransport googleHttpTransport() {
+        return new NetHttpTransport();
+    }
+
+    @Bean
+    public JsonFactory googleJsonFactory() {
+        return GsonFactory.getDefaultInstance();
+    }
+
+    @Bean
+    public GooglePublicKeysManager googlePublicKeysManager(HttpTransport googleHttpTransport,
+                                                           JsonFactory googleJsonFactory) {
+        return new GooglePublicKeysManager.Builder(googleHttpTransport, googleJsonFactory)
+                .setPublicCertsEncodedUrl(googleAuthProps.getCertsUrl())
+                .build();
+    }
+
+    @Bean
+    public GoogleIdTokenVerifier googleIdTokenVerifier(GooglePublicKeysManager googlePublicKeysManager) {
+        return new GoogleIdTokenVerifier.Builder(googlePublicKeysManager)
+                .setAudience(googleAuthProps.getAudiences())
+                .build();
+    }
+}
@@ -1,10 +1,21 @@
 package com.auxby.usermanager.config;
 
+import com.auxby.usermanager.config.properties.CacheProps;
 import com.auxby.usermanager.config.properties.KeycloakProps;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
 import org.jboss.resteasy.client.jaxrs.ResteasyClient;
 import org.jboss.resteasy.client.jaxrs.ResteasyClientBuilder;
+import org.jboss.resteasy.client.jaxrs.engines.ApacheHttpClient43Engine;
 import org.keycloak.OAuth2Constants;
 import org.keycloak.admin.client.Keycloak;
 import org.keycloak.admin.client.KeycloakBuilder;
@@ -13,36 +24,71 @@ import org.keycloak.representations.idm.RoleRepresentation;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToIntFunction;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class KeycloakClient {
 
-    private Keycloak keycloak;
     private final KeycloakProps keycloakProps;
+    private final CacheProps cacheProps;
+    private final MeterRegistry meterRegistry;
+    private final ReentrantLock initLock = new ReentrantLock();
+    private Cache<String, RoleRepresentation> realmRoles;
+    private volatile Keycloak keycloak;
+    private volatile PoolingHttpClientConnectionManager connectionManager;
 
     public UsersResource getKeycloakRealmUsersResources() {
-        if (keycloak == null || keycloak.isClosed()) {
-            initKeycloakClient();
-        }
-        return keycloak.realm(keycloakProps.getRealm()).users();
+        return getKeycloak().realm(keycloakProps.getRealm()).users();
     }
 
     public RoleRepresentation getRealmRoleRepresentation(String role) {
-        if (keycloak == null || keycloak.isClosed()) {
-            initKeycloakClient();
-        }
-        return keycloak.realm(keycloakProps.getRealm())
+        return realmRoles.get(role, name -> getKeycloak().realm(keycloakProps.getRealm())
                 .roles()
-                .get(role)
-                .toRepresentation();
+                .get(name)
+                .toRepresentation());
     }
 
     @PostConstruct
-    private void initKeycloakClient() {
+    private void init() {
+        realmRoles = Caffeine.newBuilder()
+                .maximumSize(cacheProps.getRealmRoles().getMaxSize())
+                .expireAfterWrite(cacheProps.getRealmRoles().getTtl())
+                .build();
+        registerPoolMetrics();
+        getKeycloak();
+    }
+
+    @PreDestroy
+    private void close() {
+        if (keycloak != null) {
+            keycloak.close();
+        }
+    }
+
+    private Keycloak getKeycloak() {
+        Keycloak current = keycloak;
+        if (current != null && !current.isClosed()) {
+            return current;
+        }
+        initLock.lock();
+        try {
+            if (keycloak == null || keycloak.isClosed()) {
+                keycloak = initKeycloakClient();
+            }
+            return keycloak;
+        } finally {
+            initLock.unlock();
+        }
+    }
+
+    private Keycloak initKeycloakClient() {
         log.info("Create keycloak-client");
-        keycloak = KeycloakBuilder.builder()
+        Keycloak newKeycloak = KeycloakBuilder.builder()
                 .serverUrl(keycloakProps.getUrl())
                 .realm(keycloakProps.getRealm())
                 .grantType(OAuth2Constants.CLIENT_CREDENTIALS)
@@ -52,17 +98,56 @@ public class KeycloakClient {
                 .build();
 
         try {
-            if (keycloak.tokenManager().getAccessTokenString() == null) {
+            if (newKeycloak.tokenManager().getAccessTokenString() == null) {
                 throw new RuntimeException("Keycloak client configuration fails.");
             }
         } catch (Exception e) {
-            throw new RuntimeException("Keycloak client configuration fails.");
+            newKeycloak.close();
+            throw new RuntimeException("Keycloak client configuration fails.", e);
         }
+        return newKeycloak;
     }
 
     private ResteasyClient getResEasyClient() {
+        KeycloakProps.Pool pool = keycloakProps.getPool();
+        PoolingHttpClientConnectionManager newConnectionManager = new PoolingHttpClientConnectionManager();
+        newConnectionManager.setMaxTotal(pool.getMaxTotal());
+        newConnectionManager.setDefaultMaxPerRoute(pool.getMaxPerRoute());
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(newConnectionManager)
+                .setDefaultRequestConfig(requestConfig(pool))
+                .evictExpiredConnections()
+                .evictIdleConnections(pool.getIdleTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                .build();
+        connectionManager = newConnectionManager;
+
         return new ResteasyClientBuilder()
-                .connectionPoolSize(10)
+                .httpEngine(new ApacheHttpClient43Engine(httpClient, true))
                 .build();
     }
+
+    static RequestConfig requestConfig(KeycloakProps.Pool pool) {
+        return RequestConfig.custom()
+                .setConnectionRequestTimeout((int) pool.getAcquireTimeout().toMillis())
+                .setConnectTimeout((int) pool.getConnectTimeout().toMillis())
+                .setSocketTimeout((int) pool.getReadTimeout().toMillis())
+                .build();
+    }
+
+    private void registerPoolMetrics() {
+        registerPoolGauge("leased", PoolStats::getLeased);
+        registerPoolGauge("pending", PoolStats::getPending);
+        registerPoolGauge("available", PoolStats::getAvailable);
+        registerPoolGauge("max", PoolStats::getMax);
+    }
+
+    private void registerPoolGauge(String state, ToIntFunction<PoolStats> value) {
+        Gauge.builder("keycloak.admin.pool.connections", this, client -> {
+                    PoolingHttpClientConnectionManager current = client.connectionManager;
+                    return current == null ? 0 : value.applyAsInt(current.getTotalStats());
+                })
+                .tag("state", state)
+                .description("Connections of the Keycloak admin client pool")
+                .register(meterRegistry);
+    }
 }
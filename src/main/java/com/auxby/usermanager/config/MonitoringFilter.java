@@ -1,7 +1,7 @@
 package com.auxby.usermanager.config;
 
 import com.amazonaws.util.StringUtils;
-import com.auxby.usermanager.api.v1.user.UserService;
+import com.auxby.usermanager.api.v1.user.UserLastSeenBuffer;
 import com.auxby.usermanager.utils.SecurityContextUtil;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Component;
@@ -13,7 +13,7 @@ import java.io.IOException;
 @AllArgsConstructor
 public class MonitoringFilter implements Filter {
 
-    private final UserService userService;
+    private final UserLastSeenBuffer lastSeenBuffer;
 
     @Override
     public void doFilter(ServletRequest request,
@@ -21,7 +21,7 @@ public class MonitoringFilter implements Filter {
                          FilterChain chain) throws ServletException, IOException {
         String uuid = SecurityContextUtil.getUserId();
         if (StringUtils.hasValue(uuid)) {
-            userService.updateUserLastSeen(uuid);
+            lastSeenBuffer.touch(uuid);
         }
         chain.doFilter(request, response);
     }
@@ -0,0 +1,25 @@
+package com.auxby.usermanager.config;
+
+import com.auxby.usermanager.utils.VirtualThreads;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+@Configuration
+public class ReactorConfiguration {
+    private static final int BLOCKING_THREAD_TTL_SECONDS = 60;
+    @Value("${auth.blocking-pool.size:20}")
+    private int blockingPoolSize;
+    @Value("${auth.blocking-pool.queue-size:1000}")
+    private int blockingQueueSize;
+
+    @Bean(destroyMethod = "dispose")
+    public Scheduler authBlockingScheduler(VirtualThreads virtualThreads) {
+        if (virtualThreads.isEnabled()) {
+            return Schedulers.newBoundedElastic(blockingPoolSize, blockingQueueSize, virtualThreads.threadFactory("auth-blocking-"), BLOCKING_THREAD_TTL_SECONDS);
+        }
+        return Schedulers.newBoundedElastic(blockingPoolSize, blockingQueueSize, "auth-blocking");
+    }
+}
@@ -1,6 +1,5 @@
 package com.auxby.usermanager.config;
 
-import com.auxby.usermanager.api.v1.user.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -21,7 +20,6 @@ import static com.auxby.usermanager.utils.constant.AppConstant.BASE_V1_URL;
 public class SecurityConfig {
     @Value("${cors.allowed.origins:}")
     private String corsAllowedOrigins;
-    private final UserService userService;
 
     private static final String[] SWAGGER_WHITELIST = {
             "/v3/api-docs/**",
@@ -33,7 +31,8 @@ public class SecurityConfig {
             "/api/v1/user/reset",
             "/api/v1/user/login",
             "/api/v1/user/googleAuth",
-            "/api/v1/user/resend-verification-link"
+            "/api/v1/user/resend-verification-link",
+            "/api/v1/user/payment/webhook"
     };
 
     private static final String[] GET_API_WHITELIST = {
@@ -56,9 +55,9 @@ public class SecurityConfig {
     }
 
     @Bean
-    public FilterRegistrationBean<MonitoringFilter> userActivityFilter() {
+    public FilterRegistrationBean<MonitoringFilter> userActivityFilter(MonitoringFilter monitoringFilter) {
         FilterRegistrationBean<MonitoringFilter> registrationBean = new FilterRegistrationBean<>();
-        registrationBean.setFilter(new MonitoringFilter(userService));
+        registrationBean.setFilter(monitoringFilter);
         registrationBean.addUrlPatterns("/" + BASE_V1_URL + "/*");
         registrationBean.setOrder(100);
 
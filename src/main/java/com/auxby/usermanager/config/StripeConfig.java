@@ -0,0 +1,33 @@
+package com.auxby.usermanager.config;
+
+import com.auxby.usermanager.config.properties.StripeClientProps;
+import com.auxby.usermanager.utils.VirtualThreads;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.List;
+
+@Configuration
+@RequiredArgsConstructor
+public class StripeConfig {
+
+    private final StripeClientProps stripeClientProps;
+    private final VirtualThreads virtualThreads;
+
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor stripeExecutor(MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(stripeClientProps.getThreads());
+        executor.setMaxPoolSize(stripeClientProps.getThreads());
+        executor.setQueueCapacity(stripeClientProps.getQueueCapacity());
+        executor.setThreadNamePrefix("stripe-");
+        virtualThreads.apply(executor);
+        executor.initialize();
+        new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), "stripe", List.of()).bindTo(meterRegistry);
+        return executor;
+    }
+}
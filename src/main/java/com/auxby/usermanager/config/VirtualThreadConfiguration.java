@@ -0,0 +1,20 @@
+package com.auxby.usermanager.config;
+
+import com.auxby.usermanager.utils.VirtualThreads;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class VirtualThreadConfiguration {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(VirtualThreads virtualThreads) {
+        return protocolHandler -> {
+            if (virtualThreads.isEnabled()) {
+                // one virtual thread per request instead of the bounded server.tomcat.threads pool
+                protocolHandler.setExecutor(virtualThreads.newThreadPerTaskExecutor("http-vt-"));
+            }
+        };
+    }
+}
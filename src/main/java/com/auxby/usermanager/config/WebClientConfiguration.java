@@ -1,12 +1,16 @@
 package com.auxby.usermanager.config;
 
 import com.auxby.usermanager.config.properties.KeycloakProps;
+import io.netty.channel.ChannelOption;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 @Configuration
 @RequiredArgsConstructor
@@ -14,10 +18,28 @@ public class WebClientConfiguration {
 
     private final KeycloakProps keycloakProps;
 
+    // waiting logins queue for a connection instead of failing once the default pending limit is reached
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider webClientConnectionProvider() {
+        KeycloakProps.Pool pool = keycloakProps.getPool();
+        KeycloakProps.ReactivePool reactivePool = keycloakProps.getReactivePool();
+        return ConnectionProvider.builder("auth-web-client")
+                .maxConnections(reactivePool.getMaxConnections())
+                .pendingAcquireMaxCount(reactivePool.getMaxPendingAcquires())
+                .pendingAcquireTimeout(pool.getAcquireTimeout())
+                .maxIdleTime(pool.getIdleTimeout())
+                .build();
+    }
+
     @Bean
-    public WebClient webClient() {
+    public WebClient webClient(ConnectionProvider webClientConnectionProvider) {
+        KeycloakProps.Pool pool = keycloakProps.getPool();
+        HttpClient httpClient = HttpClient.create(webClientConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) pool.getConnectTimeout().toMillis())
+                .responseTimeout(pool.getReadTimeout());
         return WebClient.builder()
                 .baseUrl(keycloakProps.getUrl())
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
                 .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_FORM_URLENCODED_VALUE)
                 .build();
     }
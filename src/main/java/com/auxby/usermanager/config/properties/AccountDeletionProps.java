@@ -0,0 +1,19 @@
+package com.auxby.usermanager.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "account-deletion")
+public class AccountDeletionProps {
+    private int workers = 2;
+    private Duration pollInterval = Duration.ofSeconds(5);
+    private int maxAttempts = 5;
+    private Duration retryBackoff = Duration.ofSeconds(30);
+    // a RUNNING job not updated for this long is considered abandoned and claimed again
+    private Duration lease = Duration.ofMinutes(10);
+}
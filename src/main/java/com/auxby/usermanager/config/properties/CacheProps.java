@@ -0,0 +1,47 @@
+package com.auxby.usermanager.config.properties;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "cache")
+public class CacheProps {
+    private Spec emailVerified = new Spec(50_000, Duration.ofHours(12));
+    private Spec realmRoles = new Spec(100, Duration.ofMinutes(30));
+    private Spec userProfile = new Spec(50_000, Duration.ofMinutes(5));
+    private Invalidation invalidation = new Invalidation();
+    private UserNameIndex userNameIndex = new UserNameIndex();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Spec {
+        private long maxSize;
+        private Duration ttl;
+    }
+
+    @Data
+    public static class Invalidation {
+        private boolean enabled = true;
+        private String channel = "user_cache_invalidation";
+        private String userNameChannel = "user_name_created";
+        // notifications arriving within this window after the first one are evicted together
+        private Duration coalesceWindow = Duration.ofMillis(100);
+        private Duration pollTimeout = Duration.ofSeconds(1);
+        private Duration reconnectBackoff = Duration.ofSeconds(5);
+    }
+
+    @Data
+    public static class UserNameIndex {
+        private long minExpectedInsertions = 100_000;
+        private double falsePositiveRate = 0.01;
+        // also drops the names of deleted users, a bloom filter cannot remove entries
+        private Duration rebuildInterval = Duration.ofHours(6);
+    }
+}
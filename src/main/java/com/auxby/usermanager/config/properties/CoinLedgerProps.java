@@ -0,0 +1,17 @@
+package com.auxby.usermanager.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "coin-ledger")
+public class CoinLedgerProps {
+    private Duration compactionInterval = Duration.ofDays(1);
+    // entries older than this are folded into one COMPACTED entry per account
+    private Duration retention = Duration.ofDays(90);
+    private int maxPageSize = 100;
+}
@@ -0,0 +1,23 @@
+package com.auxby.usermanager.config.properties;
+
+import com.google.api.client.googleapis.auth.oauth2.GoogleOAuthConstants;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+import static com.auxby.usermanager.utils.constant.AppConstant.ANDROID_GOOGLE_CLIENT;
+import static com.auxby.usermanager.utils.constant.AppConstant.IOS_GOOGLE_CLIENT;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "google-auth")
+public class GoogleAuthProps {
+    private String certsUrl = GoogleOAuthConstants.DEFAULT_PUBLIC_CERTS_ENCODED_URL;
+    private List<String> audiences = List.of(IOS_GOOGLE_CLIENT, ANDROID_GOOGLE_CLIENT);
+    // must be larger than the 5 minutes skew after which the keys manager refreshes on the caller thread
+    private Duration refreshAhead = Duration.ofMinutes(10);
+    private Duration refreshCheckInterval = Duration.ofMinutes(1);
+}
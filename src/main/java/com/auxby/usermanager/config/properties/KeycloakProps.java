@@ -5,6 +5,7 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
 import javax.validation.constraints.NotBlank;
+import java.time.Duration;
 
 @Data
 @Component
@@ -20,4 +21,22 @@ public class KeycloakProps {
     private String clientId;
     @NotBlank
     private String clientSecret;
+    private Pool pool = new Pool();
+    private ReactivePool reactivePool = new ReactivePool();
+
+    @Data
+    public static class Pool {
+        private int maxTotal = 50;
+        private int maxPerRoute = 50;
+        private Duration idleTimeout = Duration.ofSeconds(30);
+        private Duration acquireTimeout = Duration.ofSeconds(2);
+        private Duration connectTimeout = Duration.ofSeconds(2);
+        private Duration readTimeout = Duration.ofSeconds(10);
+    }
+
+    @Data
+    public static class ReactivePool {
+        private int maxConnections = 100;
+        private int maxPendingAcquires = 10000;
+    }
 }
@@ -0,0 +1,15 @@
+package com.auxby.usermanager.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "last-seen")
+public class LastSeenProps {
+    private Duration flushInterval = Duration.ofSeconds(30);
+    private int maxBatchSize = 500;
+}
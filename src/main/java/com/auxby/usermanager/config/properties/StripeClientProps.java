@@ -0,0 +1,20 @@
+package com.auxby.usermanager.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "stripe.client")
+public class StripeClientProps {
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration readTimeout = Duration.ofSeconds(10);
+    // retried with the same idempotency key, stripe answers a replayed request with the original result
+    private int maxNetworkRetries = 2;
+    // upper bound of concurrent stripe calls, a slow stripe can't take more threads than this
+    private int threads = 10;
+    private int queueCapacity = 50;
+}
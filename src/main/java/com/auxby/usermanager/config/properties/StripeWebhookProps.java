@@ -0,0 +1,18 @@
+package com.auxby.usermanager.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "stripe.webhook")
+public class StripeWebhookProps {
+    private String secret;
+    private int batchSize = 100;
+    // caps a poll so a backlog does not hold the shared scheduler thread, the rest is picked up on the next poll
+    private int maxBatchesPerPoll = 10;
+    private Duration pollInterval = Duration.ofSeconds(1);
+}
@@ -0,0 +1,13 @@
+package com.auxby.usermanager.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "virtual-threads")
+public class VirtualThreadProps {
+    // needs java 21, older runtimes log a warning and stay on platform threads
+    private boolean enabled = false;
+}
@@ -0,0 +1,40 @@
+package com.auxby.usermanager.entity;
+
+import com.auxby.usermanager.entity.base.AuxbyBaseEntity;
+import com.auxby.usermanager.utils.enums.DeletionJobStage;
+import com.auxby.usermanager.utils.enums.DeletionJobStatus;
+import lombok.Data;
+
+import javax.persistence.*;
+import java.util.Date;
+
+@Data
+@Entity
+@Table(name = "ACCOUNT_DELETION_JOB")
+@SequenceGenerator(name = "seq_generator", sequenceName = "account_deletion_job_id_seq", allocationSize = 50)
+public class AccountDeletionJob extends AuxbyBaseEntity {
+    private String accountUuid;
+    private Integer userId;
+    @Enumerated(EnumType.STRING)
+    private DeletionJobStage stage;
+    @Enumerated(EnumType.STRING)
+    private DeletionJobStatus status;
+    private int attempts;
+    private String lastError;
+    private Date createdAt;
+    private Date updatedAt;
+    private Date nextAttemptAt;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof AccountDeletionJob)) return false;
+
+        return getId() != null && getId().equals(((AccountDeletionJob) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+}
@@ -10,7 +10,7 @@ import javax.persistence.*;
 @Entity
 @Table(name = "ADDRESS")
 @EqualsAndHashCode(callSuper = true)
-@SequenceGenerator(name = "seq_generator", sequenceName = "address_id_seq", allocationSize = 1)
+@SequenceGenerator(name = "seq_generator", sequenceName = "address_id_seq", allocationSize = 50)
 public class Address extends AuxbyBaseEntity {
     private String city;
     private String country;
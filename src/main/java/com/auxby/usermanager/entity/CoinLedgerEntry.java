@@ -0,0 +1,34 @@
+package com.auxby.usermanager.entity;
+
+import com.auxby.usermanager.entity.base.AuxbyBaseEntity;
+import com.auxby.usermanager.utils.enums.CoinChangeReason;
+import lombok.Data;
+
+import javax.persistence.*;
+import java.util.Date;
+
+@Data
+@Entity
+@Table(name = "COIN_LEDGER")
+@SequenceGenerator(name = "seq_generator", sequenceName = "coin_ledger_id_seq", allocationSize = 50)
+public class CoinLedgerEntry extends AuxbyBaseEntity {
+    private String accountUuid;
+    private Integer delta;
+    @Enumerated(EnumType.STRING)
+    private CoinChangeReason reason;
+    private String reference;
+    private Date createdAt;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CoinLedgerEntry)) return false;
+
+        return getId() != null && getId().equals(((CoinLedgerEntry) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+}
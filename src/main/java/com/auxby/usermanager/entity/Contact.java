@@ -9,7 +9,7 @@ import javax.persistence.*;
 @Data
 @Entity
 @Table(name = "CONTACT")
-@SequenceGenerator(name = "seq_generator", sequenceName = "contact_id_seq", allocationSize = 1)
+@SequenceGenerator(name = "seq_generator", sequenceName = "contact_id_seq", allocationSize = 50)
 public class Contact extends AuxbyBaseEntity {
     @Enumerated(EnumType.STRING)
     private ContactType type;
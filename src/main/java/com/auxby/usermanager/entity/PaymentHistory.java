@@ -11,10 +11,12 @@ import java.util.Date;
 @Data
 @Entity
 @Table(name = "payments_history")
-@SequenceGenerator(name = "seq_generator", sequenceName = "payments_history_id_seq", allocationSize = 1)
+@SequenceGenerator(name = "seq_generator", sequenceName = "payments_history_id_seq", allocationSize = 50)
 public class PaymentHistory extends AuxbyBaseEntity {
     private String status;
     private String accountUuid;
     private String paymentSecret;
+    private String paymentIntentId;
+    private Integer coins;
     private Date intentDate;
 }
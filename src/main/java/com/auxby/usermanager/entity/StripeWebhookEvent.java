@@ -0,0 +1,33 @@
+package com.auxby.usermanager.entity;
+
+import com.auxby.usermanager.utils.enums.WebhookEventStatus;
+import lombok.Data;
+
+import javax.persistence.*;
+import java.util.Date;
+
+@Data
+@Entity
+@Table(name = "STRIPE_WEBHOOK_EVENT")
+public class StripeWebhookEvent {
+    @Id
+    private String eventId;
+    private String paymentIntentId;
+    @Enumerated(EnumType.STRING)
+    private WebhookEventStatus status;
+    private Date receivedAt;
+    private Date processedAt;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof StripeWebhookEvent)) return false;
+
+        return eventId != null && eventId.equals(((StripeWebhookEvent) o).getEventId());
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+}
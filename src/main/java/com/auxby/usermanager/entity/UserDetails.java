@@ -3,6 +3,7 @@ package com.auxby.usermanager.entity;
 import com.auxby.usermanager.entity.base.AuxbyBaseEntity;
 import lombok.Data;
 import lombok.ToString;
+import org.hibernate.annotations.DynamicUpdate;
 
 import javax.persistence.*;
 import java.util.ArrayList;
@@ -13,11 +14,12 @@ import java.util.Set;
 @Data
 @Entity
 @Table(name = "USER_DETAILS")
+@DynamicUpdate
 @NamedEntityGraph(name = "user-contacts-graph",
         attributeNodes = @NamedAttributeNode(value = "contacts"))
 @NamedEntityGraph(name = "user-addresses-graph",
         attributeNodes = @NamedAttributeNode(value = "addresses"))
-@SequenceGenerator(name = "seq_generator", sequenceName = "user_details_id_seq", allocationSize = 1)
+@SequenceGenerator(name = "seq_generator", sequenceName = "user_details_id_seq", allocationSize = 50)
 public class UserDetails extends AuxbyBaseEntity {
     private String gender;
     private String lastName;
@@ -8,7 +8,7 @@ import javax.persistence.*;
 @Data
 @Entity
 @Table(name = "USER_DEVICES")
-@SequenceGenerator(name = "seq_generator", sequenceName = "user_details_id_seq", allocationSize = 1)
+@SequenceGenerator(name = "seq_generator", sequenceName = "user_devices_id_seq", allocationSize = 50)
 public class UserDevices extends AuxbyBaseEntity {
 
     private String deviceKey;
@@ -0,0 +1,7 @@
+package com.auxby.usermanager.exception;
+
+public class StripeUnavailableException extends RuntimeException {
+    public StripeUnavailableException(String message) {
+        super(message);
+    }
+}
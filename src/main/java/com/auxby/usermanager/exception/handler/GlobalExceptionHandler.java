@@ -3,9 +3,13 @@ package com.auxby.usermanager.exception.handler;
 import com.auxby.usermanager.exception.ActionNotAllowException;
 import com.auxby.usermanager.exception.RegistrationException;
 import com.auxby.usermanager.exception.SignInException;
+import com.auxby.usermanager.exception.StripeUnavailableException;
 import com.auxby.usermanager.exception.UserEmailNotValidatedException;
 import com.auxby.usermanager.exception.response.ExceptionResponse;
 import com.auxby.usermanager.utils.enums.CustomHttpStatus;
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.exception.RateLimitException;
+import com.stripe.exception.SignatureVerificationException;
 import org.postgresql.util.PSQLException;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
 import org.springframework.http.HttpHeaders;
@@ -79,4 +83,16 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return ResponseEntity.status(CustomHttpStatus.ACTION_NOT_ALLOW.getCode())
                 .body(new ExceptionResponse(ex.getMessage()));
     }
+
+    @ExceptionHandler(value = SignatureVerificationException.class)
+    protected ResponseEntity<ExceptionResponse> handleSignatureVerification(SignatureVerificationException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(new ExceptionResponse(ex.getMessage()));
+    }
+
+    @ExceptionHandler(value = {StripeUnavailableException.class, ApiConnectionException.class, RateLimitException.class})
+    protected ResponseEntity<ExceptionResponse> handleStripeUnavailable(Exception ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(new ExceptionResponse(ex.getMessage()));
+    }
 }
@@ -0,0 +1,65 @@
+package com.auxby.usermanager.utils;
+
+import com.auxby.usermanager.config.properties.VirtualThreadProps;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+// the build targets java 17, the java 21 thread builder api is looked up reflectively
+@Slf4j
+@Component
+public class VirtualThreads {
+    private final boolean enabled;
+
+    public VirtualThreads(VirtualThreadProps virtualThreadProps) {
+        boolean supported = Runtime.version().feature() >= 21;
+        if (virtualThreadProps.isEnabled() && !supported) {
+            log.warn("Virtual threads need java 21 or newer, running on {} with platform threads.", Runtime.version());
+        }
+        this.enabled = virtualThreadProps.isEnabled() && supported;
+        if (enabled) {
+            log.info("Running request handling and background executors on virtual threads.");
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public ThreadFactory threadFactory(String namePrefix) {
+        return enabled ? virtualThreadFactory(namePrefix) : new CustomizableThreadFactory(namePrefix);
+    }
+
+    // the pool size keeps bounding concurrency, only the threads behind it become virtual
+    public void apply(ThreadPoolTaskExecutor executor) {
+        if (enabled) {
+            executor.setThreadFactory(virtualThreadFactory(executor.getThreadNamePrefix()));
+        }
+    }
+
+    public ExecutorService newThreadPerTaskExecutor(String namePrefix) {
+        try {
+            Method newThreadPerTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            return (ExecutorService) newThreadPerTaskExecutor.invoke(null, threadFactory(namePrefix));
+        } catch (ReflectiveOperationException exception) {
+            throw new IllegalStateException("Thread per task executors are not available on " + Runtime.version(), exception);
+        }
+    }
+
+    private static ThreadFactory virtualThreadFactory(String namePrefix) {
+        try {
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException exception) {
+            throw new IllegalStateException("Virtual threads are not available on " + Runtime.version(), exception);
+        }
+    }
+}
@@ -4,6 +4,7 @@ public interface AppConstant {
     String BASE_V1_URL = "api/v1/user";
     String VALID_EMAIL_REGEX = "[a-z0-9!#$%&'*+/=?^_`{|}~-]+(?:.[a-z0-9!#$%&'*+/=?^_`{|}~-]+)*@(?:[a-z0-9](?:[a-z0-9-]*[a-z0-9])?.)+[a-z0-9](?:[a-z0-9-]*[a-z0-9])?";
     String VALID_PHONE_REGEX = "(\\+61|0)[0-9]{9}";
+    String NOT_BLANK_REGEX = ".*\\S.*";
     String IOS_GOOGLE_CLIENT = "156615882044-mk6ccisj7h3k7v0rtogpn8q2i40rbppu.apps.googleusercontent.com";
     String ANDROID_GOOGLE_CLIENT = "156615882044-rdmjaosndk9ovbsno56imkkomgr799bq.apps.googleusercontent.com";
 
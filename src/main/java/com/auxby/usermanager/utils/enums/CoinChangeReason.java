@@ -0,0 +1,5 @@
+package com.auxby.usermanager.utils.enums;
+
+public enum CoinChangeReason {
+    SIGNUP_BONUS, PURCHASE, COMPACTED
+}
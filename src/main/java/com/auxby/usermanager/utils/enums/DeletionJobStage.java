@@ -0,0 +1,9 @@
+package com.auxby.usermanager.utils.enums;
+
+public enum DeletionJobStage {
+    KEYCLOAK, S3, DATABASE, COMPLETED;
+
+    public DeletionJobStage next() {
+        return values()[Math.min(ordinal() + 1, COMPLETED.ordinal())];
+    }
+}
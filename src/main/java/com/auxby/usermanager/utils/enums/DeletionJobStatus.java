@@ -0,0 +1,5 @@
+package com.auxby.usermanager.utils.enums;
+
+public enum DeletionJobStatus {
+    PENDING, RUNNING, FAILED, COMPLETED
+}
@@ -0,0 +1,5 @@
+package com.auxby.usermanager.utils.enums;
+
+public enum WebhookEventStatus {
+    PENDING, PROCESSED
+}
@@ -0,0 +1,89 @@
+package com.auxby.usermanager.utils.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+@Component
+@RequiredArgsConstructor
+public class DependencyMetrics {
+    public static final String KEYCLOAK = "keycloak";
+    public static final String S3 = "s3";
+    public static final String STRIPE = "stripe";
+    public static final String GOOGLE = "google";
+    private static final String CALLS = "dependency.calls";
+    private static final String ERRORS = "dependency.errors";
+
+    private final MeterRegistry meterRegistry;
+
+    public <T, E extends Exception> T record(String dependency, String operation, Call<T, E> call) throws E {
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            return call.execute();
+        } catch (Exception exception) {
+            outcome = "error";
+            countError(dependency, operation, exception);
+            throw exception;
+        } finally {
+            timer(dependency, operation, outcome).record(Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+
+    public <E extends Exception> void run(String dependency, String operation, VoidCall<E> call) throws E {
+        record(dependency, operation, () -> {
+            call.execute();
+            return null;
+        });
+    }
+
+    public <T> Mono<T> recordAsync(String dependency, String operation, Mono<T> call) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return call
+                    .doOnSuccess(value -> timer(dependency, operation, "success")
+                            .record(Duration.ofNanos(System.nanoTime() - start)))
+                    .doOnError(exception -> {
+                        countError(dependency, operation, exception);
+                        timer(dependency, operation, "error").record(Duration.ofNanos(System.nanoTime() - start));
+                    });
+        });
+    }
+
+    private Timer timer(String dependency, String operation, String outcome) {
+        return Timer.builder(CALLS)
+                .description("Latency of calls to external dependencies")
+                .tag("dependency", dependency)
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(meterRegistry);
+    }
+
+    private void countError(String dependency, String operation, Throwable exception) {
+        Counter.builder(ERRORS)
+                .description("Failed calls to external dependencies")
+                .tag("dependency", dependency)
+                .tag("operation", operation)
+                .tag("exception", exception.getClass().getSimpleName())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    @FunctionalInterface
+    public interface Call<T, E extends Exception> {
+        T execute() throws E;
+    }
+
+    @FunctionalInterface
+    public interface VoidCall<E extends Exception> {
+        void execute() throws E;
+    }
+}
@@ -2,72 +2,142 @@ package com.auxby.usermanager.utils.service;
 
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.model.*;
+import com.auxby.usermanager.utils.metrics.DependencyMetrics;
+import com.auxby.usermanager.utils.service.model.PurgeResult;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.File;
-import java.io.FileOutputStream;
+import javax.annotation.PostConstruct;
 import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static com.auxby.usermanager.utils.metrics.DependencyMetrics.S3;
 
 @Service
 @RequiredArgsConstructor
 public class AmazonClientService {
+    private static final int MAX_KEYS_PER_BATCH = 1000;
     @Value("${aws.bucket}")
     private String bucket;
     @Value("${aws.endpoint}")
     private String endpoint;
+    @Value("${aws.upload.max-in-flight-bytes:67108864}")
+    private int maxInFlightBytes;
+    @Value("${aws.upload.acquire-timeout:2s}")
+    private Duration acquireTimeout;
 
     private final AmazonS3 amazonS3;
+    @Qualifier("s3PurgeExecutor")
+    private final Executor s3PurgeExecutor;
+    private final DependencyMetrics dependencyMetrics;
+    private Semaphore inFlightBytes;
+
+    @PostConstruct
+    public void initUploadBudget() {
+        inFlightBytes = new Semaphore(maxInFlightBytes, true);
+    }
 
     public String uploadAvatar(MultipartFile avatar, String uuid) throws IOException {
-        File file = convertToFile(avatar);
         String fileName = String.format("avatar-%s", uuid);
         String fileUrl = endpoint + "/" + bucket + "/" + fileName;
-        uploadFileToS3Bucket(fileName, file);
-        file.delete();
+        int size = acquireUploadBudget(avatar.getSize());
+        try (InputStream inputStream = avatar.getInputStream()) {
+            uploadStreamToS3Bucket(fileName, inputStream, size, avatar.getContentType());
+        } finally {
+            inFlightBytes.release(size);
+        }
 
         return fileUrl;
     }
 
     public void deleteUserAvatar(String uuid) {
         String fileName = String.format("avatar-%s", uuid);
-        amazonS3.deleteObject(new DeleteObjectRequest(bucket, fileName));
+        dependencyMetrics.run(S3, "delete", () -> amazonS3.deleteObject(new DeleteObjectRequest(bucket, fileName)));
     }
 
-    public void deleteOfferResources(String userUuid, Integer offerId) {
-        ListObjectsRequest listObjectsRequest = new ListObjectsRequest()
+    public PurgeResult purgeUserResources(String userUuid) {
+        ListObjectsV2Request listRequest = new ListObjectsV2Request()
                 .withBucketName(bucket)
-                .withPrefix(userUuid + "/" + offerId);
-        List<S3ObjectSummary> objectSummaries = amazonS3.listObjects(listObjectsRequest)
-                .getObjectSummaries();
-        if (!objectSummaries.isEmpty()) {
-            ArrayList<DeleteObjectsRequest.KeyVersion> keys = new ArrayList<>();
-            objectSummaries.forEach(
-                    s3ObjectSummary -> keys.add(new DeleteObjectsRequest.KeyVersion(s3ObjectSummary.getKey()))
-            );
-            DeleteObjectsRequest request = new DeleteObjectsRequest(bucket)
-                    .withKeys(keys)
-                    .withQuiet(false);
-            amazonS3.deleteObjects(request);
+                .withPrefix(userUuid + "/")
+                .withMaxKeys(MAX_KEYS_PER_BATCH);
+        List<CompletableFuture<PurgeResult>> batches = new ArrayList<>();
+        ListObjectsV2Result listing;
+        do {
+            listing = dependencyMetrics.record(S3, "list", () -> amazonS3.listObjectsV2(listRequest));
+            List<S3ObjectSummary> objectSummaries = listing.getObjectSummaries();
+            if (!objectSummaries.isEmpty()) {
+                batches.add(CompletableFuture.supplyAsync(() -> deleteBatch(objectSummaries), s3PurgeExecutor));
+            }
+            listRequest.setContinuationToken(listing.getNextContinuationToken());
+        } while (listing.isTruncated());
+
+        try {
+            CompletableFuture.allOf(batches.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw exception;
         }
+        return batches.stream()
+                .map(CompletableFuture::join)
+                .reduce(PurgeResult.EMPTY, PurgeResult::plus);
     }
 
-    private File convertToFile(MultipartFile multipartFile) throws IOException {
-        File convFile = new File(multipartFile.getOriginalFilename());
-        try (FileOutputStream fileOutputStream = new FileOutputStream(convFile)) {
-            fileOutputStream.write(multipartFile.getBytes());
-        }
+    private PurgeResult deleteBatch(List<S3ObjectSummary> objectSummaries) {
+        Map<String, Long> sizes = new HashMap<>();
+        objectSummaries.forEach(summary -> sizes.put(summary.getKey(), summary.getSize()));
+        List<DeleteObjectsRequest.KeyVersion> keys = sizes.keySet()
+                .stream()
+                .map(DeleteObjectsRequest.KeyVersion::new)
+                .toList();
+        DeleteObjectsRequest request = new DeleteObjectsRequest(bucket)
+                .withKeys(keys)
+                .withQuiet(false);
+        List<DeleteObjectsResult.DeletedObject> deletedObjects = dependencyMetrics.record(S3, "delete-batch", () -> amazonS3.deleteObjects(request))
+                .getDeletedObjects();
+        long bytes = deletedObjects.stream()
+                .mapToLong(deleted -> sizes.getOrDefault(deleted.getKey(), 0L))
+                .sum();
+        return new PurgeResult(deletedObjects.size(), bytes);
+    }
 
-        return convFile;
+    private int acquireUploadBudget(long size) throws IOException {
+        if (size > maxInFlightBytes) {
+            throw new IOException("Avatar exceeds the upload budget.");
+        }
+        try {
+            if (!inFlightBytes.tryAcquire((int) size, acquireTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new IOException("Avatar upload capacity exceeded.");
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Avatar upload interrupted.", exception);
+        }
+        return (int) size;
     }
 
-    private void uploadFileToS3Bucket(String fileName, File file) {
-        var uploadRequest = new PutObjectRequest(bucket, fileName, file)
+    private void uploadStreamToS3Bucket(String fileName, InputStream inputStream, int size, String contentType) {
+        var metadata = new ObjectMetadata();
+        metadata.setContentLength(size);
+        metadata.setContentType(contentType);
+        var uploadRequest = new PutObjectRequest(bucket, fileName, inputStream, metadata)
                 .withCannedAcl(CannedAccessControlList.PublicRead);
-        amazonS3.putObject(uploadRequest);
+        // keep the default read limit, a larger one makes the SDK buffer the whole upload in heap to be able to retry.
+        // a stream failing past the first 128KB is not retried, the client uploads again
+        dependencyMetrics.record(S3, "put", () -> amazonS3.putObject(uploadRequest));
     }
 }
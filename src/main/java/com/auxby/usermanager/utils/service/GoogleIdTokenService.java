@@ -0,0 +1,53 @@
+package com.auxby.usermanager.utils.service;
+
+import com.auxby.usermanager.config.properties.GoogleAuthProps;
+import com.auxby.usermanager.utils.metrics.DependencyMetrics;
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.util.Optional;
+
+import static com.auxby.usermanager.utils.metrics.DependencyMetrics.GOOGLE;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class GoogleIdTokenService {
+    private final GoogleIdTokenVerifier verifier;
+    private final GoogleAuthProps googleAuthProps;
+    private final TaskScheduler taskScheduler;
+    private final DependencyMetrics dependencyMetrics;
+
+    @PostConstruct
+    public void scheduleKeysRefresh() {
+        taskScheduler.scheduleWithFixedDelay(this::refreshKeysIfExpiring, googleAuthProps.getRefreshCheckInterval());
+    }
+
+    public Optional<GoogleIdToken.Payload> verify(String token) throws GeneralSecurityException, IOException {
+        GoogleIdToken idToken = GoogleIdToken.parse(verifier.getJsonFactory(), token);
+        if (!verifier.verify(idToken)) {
+            return Optional.empty();
+        }
+        return Optional.of(idToken.getPayload());
+    }
+
+    public void refreshKeysIfExpiring() {
+        var keysManager = verifier.getPublicKeysManager();
+        long expiresIn = keysManager.getExpirationTimeMilliseconds() - keysManager.getClock().currentTimeMillis();
+        if (expiresIn > googleAuthProps.getRefreshAhead().toMillis()) {
+            return;
+        }
+        try {
+            dependencyMetrics.run(GOOGLE, "certs-refresh", keysManager::refresh);
+        } catch (Exception exception) {
+            log.warn("Failed to refresh Google public keys.", exception);
+        }
+    }
+}
@@ -4,30 +4,48 @@ import com.auxby.usermanager.api.v1.auth.model.AuthInfo;
 import com.auxby.usermanager.api.v1.auth.model.KeycloakAuthResponse;
 import com.auxby.usermanager.config.KeycloakClient;
 import com.auxby.usermanager.config.properties.KeycloakProps;
+import com.auxby.usermanager.utils.metrics.DependencyMetrics;
 import lombok.RequiredArgsConstructor;
+import org.keycloak.admin.client.CreatedResponseUtil;
 import org.keycloak.representations.idm.UserRepresentation;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 
 import javax.ws.rs.core.Response;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
+import static com.auxby.usermanager.utils.metrics.DependencyMetrics.KEYCLOAK;
 import static org.keycloak.OAuth2Constants.*;
 
 @Service
 @RequiredArgsConstructor
 public class KeycloakService {
     private static final String UPDATE_PASSWORD = "UPDATE_PASSWORD";
+    private static final String USER_PATH = "/admin/realms/{realm}/users/{id}";
+    private static final Duration TOKEN_REFRESH_MARGIN = Duration.ofSeconds(30);
     private final WebClient webClient;
     private final KeycloakProps keycloakProps;
     private final KeycloakClient keycloakClient;
-
+    private final DependencyMetrics dependencyMetrics;
+    // service account token of the reactive admin calls, concurrent callers share one refresh
+    private final Mono<String> serviceAccountToken = Mono.defer(this::requestServiceAccountToken)
+            .cache(KeycloakService::tokenTtl, exception -> Duration.ZERO, () -> Duration.ZERO)
+            .map(KeycloakAuthResponse::access_token);
 
     public KeycloakAuthResponse performLogin(AuthInfo authInfo) {
-        return webClient.post()
+        return performLoginAsync(authInfo)
+                .block();
+    }
+
+    public Mono<KeycloakAuthResponse> performLoginAsync(AuthInfo authInfo) {
+        return dependencyMetrics.recordAsync(KEYCLOAK, "token-grant", webClient.post()
                 .uri(keycloakProps.getAuthUrl())
                 .body(BodyInserters.fromFormData(USERNAME, authInfo.email())
                         .with(CLIENT_SECRET, keycloakProps.getClientSecret())
@@ -35,57 +53,89 @@ public class KeycloakService {
                         .with(PASSWORD, authInfo.password())
                         .with(GRANT_TYPE, PASSWORD))
                 .retrieve()
-                .bodyToFlux(KeycloakAuthResponse.class)
-                .blockFirst();
+                .bodyToMono(KeycloakAuthResponse.class));
     }
 
     public Optional<UserRepresentation> getKeycloakUser(String userName) {
-        return keycloakClient.getKeycloakRealmUsersResources()
+        return dependencyMetrics.record(KEYCLOAK, "user-search", () -> keycloakClient.getKeycloakRealmUsersResources()
                 .search(userName, true)
                 .stream()
-                .findFirst();
+                .findFirst());
     }
 
     public void deleteKeycloakUser(String userId) {
-        keycloakClient.getKeycloakRealmUsersResources()
+        dependencyMetrics.run(KEYCLOAK, "user-delete", () -> keycloakClient.getKeycloakRealmUsersResources()
                 .get(userId)
-                .remove();
+                .remove());
     }
 
     public void performUserUpdate(String userUuid, UserRepresentation userRepresentation) {
-        keycloakClient.getKeycloakRealmUsersResources()
+        dependencyMetrics.run(KEYCLOAK, "user-update", () -> keycloakClient.getKeycloakRealmUsersResources()
                 .get(userUuid)
-                .update(userRepresentation);
+                .update(userRepresentation));
     }
 
-    public void sendResetPasswordLink(String accountUuid) {
-        keycloakClient.getKeycloakRealmUsersResources()
-                .get(accountUuid)
-                .executeActionsEmail(List.of(UPDATE_PASSWORD));
+    public Mono<Void> sendResetPasswordLinkAsync(String accountUuid) {
+        return serviceAccountToken.flatMap(token -> dependencyMetrics.recordAsync(KEYCLOAK, "reset-password-email", webClient.put()
+                .uri(USER_PATH + "/execute-actions-email", keycloakProps.getRealm(), accountUuid)
+                .headers(headers -> headers.setBearerAuth(token))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(List.of(UPDATE_PASSWORD))
+                .retrieve()
+                .bodyToMono(Void.class)));
     }
 
     public void sendVerificationEmailLink(String accountUuid) {
-        keycloakClient.getKeycloakRealmUsersResources()
+        dependencyMetrics.run(KEYCLOAK, "verification-email", () -> keycloakClient.getKeycloakRealmUsersResources()
                 .get(accountUuid)
-                .sendVerifyEmail();
+                .sendVerifyEmail());
+    }
+
+    public Mono<Void> sendVerificationEmailLinkAsync(String accountUuid) {
+        return serviceAccountToken.flatMap(token -> dependencyMetrics.recordAsync(KEYCLOAK, "verification-email", webClient.put()
+                .uri(USER_PATH + "/send-verify-email", keycloakProps.getRealm(), accountUuid)
+                .headers(headers -> headers.setBearerAuth(token))
+                .retrieve()
+                .bodyToMono(Void.class)));
     }
 
     public Response performCreateUser(UserRepresentation userRepresentation) {
-        return keycloakClient.getKeycloakRealmUsersResources()
-                .create(userRepresentation);
+        return dependencyMetrics.record(KEYCLOAK, "user-create", () -> keycloakClient.getKeycloakRealmUsersResources()
+                .create(userRepresentation));
+    }
+
+    public String getCreatedUserId(Response response) {
+        return CreatedResponseUtil.getCreatedId(response);
     }
 
     public void addUserRole(String userUuid) {
-        keycloakClient.getKeycloakRealmUsersResources()
+        dependencyMetrics.run(KEYCLOAK, "role-add", () -> keycloakClient.getKeycloakRealmUsersResources()
                 .get(userUuid)
                 .roles()
                 .realmLevel()
-                .add(Collections.singletonList(keycloakClient.getRealmRoleRepresentation("auxby_user")));
+                .add(Collections.singletonList(keycloakClient.getRealmRoleRepresentation("auxby_user"))));
     }
 
-    public UserRepresentation getUserRepresentation(String accountUuid) {
-        return keycloakClient.getKeycloakRealmUsersResources()
-                .get(accountUuid)
-                .toRepresentation();
+    public Mono<UserRepresentation> getUserRepresentationAsync(String accountUuid) {
+        return serviceAccountToken.flatMap(token -> dependencyMetrics.recordAsync(KEYCLOAK, "user-get", webClient.get()
+                .uri(USER_PATH, keycloakProps.getRealm(), accountUuid)
+                .headers(headers -> headers.setBearerAuth(token))
+                .retrieve()
+                .bodyToMono(UserRepresentation.class)));
+    }
+
+    private Mono<KeycloakAuthResponse> requestServiceAccountToken() {
+        return dependencyMetrics.recordAsync(KEYCLOAK, "service-account-token", webClient.post()
+                .uri(keycloakProps.getAuthUrl())
+                .body(BodyInserters.fromFormData(CLIENT_SECRET, keycloakProps.getClientSecret())
+                        .with(CLIENT_ID, keycloakProps.getClientId())
+                        .with(GRANT_TYPE, CLIENT_CREDENTIALS))
+                .retrieve()
+                .bodyToMono(KeycloakAuthResponse.class));
+    }
+
+    private static Duration tokenTtl(KeycloakAuthResponse response) {
+        Duration ttl = Duration.ofSeconds(Objects.requireNonNullElse(response.expires_in(), 0L)).minus(TOKEN_REFRESH_MARGIN);
+        return ttl.isNegative() ? Duration.ZERO : ttl;
     }
 }
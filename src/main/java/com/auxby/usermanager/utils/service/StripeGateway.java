@@ -0,0 +1,72 @@
+package com.auxby.usermanager.utils.service;
+
+import com.auxby.usermanager.config.properties.StripeClientProps;
+import com.auxby.usermanager.exception.StripeUnavailableException;
+import com.auxby.usermanager.utils.metrics.DependencyMetrics;
+import com.stripe.exception.StripeException;
+import com.stripe.net.RequestOptions;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static com.auxby.usermanager.utils.metrics.DependencyMetrics.STRIPE;
+
+@Slf4j
+@Service
+public class StripeGateway {
+    private final String secretKey;
+    private final StripeClientProps stripeClientProps;
+    private final ThreadPoolTaskExecutor stripeExecutor;
+    private final DependencyMetrics dependencyMetrics;
+    private final Counter rejectedCounter;
+
+    public StripeGateway(@Value("${stripe.secret-key}") String secretKey,
+                         StripeClientProps stripeClientProps,
+                         @Qualifier("stripeExecutor") ThreadPoolTaskExecutor stripeExecutor,
+                         DependencyMetrics dependencyMetrics,
+                         MeterRegistry meterRegistry) {
+        this.secretKey = secretKey;
+        this.stripeClientProps = stripeClientProps;
+        this.stripeExecutor = stripeExecutor;
+        this.dependencyMetrics = dependencyMetrics;
+        this.rejectedCounter = meterRegistry.counter("stripe.bulkhead.rejected");
+    }
+
+    public <T> CompletableFuture<T> execute(String operation, Call<T> call) {
+        RequestOptions options = RequestOptions.builder()
+                .setApiKey(secretKey)
+                .setConnectTimeout((int) stripeClientProps.getConnectTimeout().toMillis())
+                .setReadTimeout((int) stripeClientProps.getReadTimeout().toMillis())
+                .setMaxNetworkRetries(stripeClientProps.getMaxNetworkRetries())
+                .setIdempotencyKey(UUID.randomUUID().toString())
+                .build();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        try {
+            stripeExecutor.execute(() -> {
+                try {
+                    result.complete(dependencyMetrics.record(STRIPE, operation, () -> call.execute(options)));
+                } catch (Exception exception) {
+                    result.completeExceptionally(exception);
+                }
+            });
+        } catch (TaskRejectedException exception) {
+            rejectedCounter.increment();
+            log.warn("Stripe bulkhead is full, rejecting {}.", operation);
+            result.completeExceptionally(new StripeUnavailableException("Payments are temporarily unavailable, please retry."));
+        }
+        return result;
+    }
+
+    @FunctionalInterface
+    public interface Call<T> {
+        T execute(RequestOptions options) throws StripeException;
+    }
+}
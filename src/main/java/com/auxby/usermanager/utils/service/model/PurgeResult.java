@@ -0,0 +1,9 @@
+package com.auxby.usermanager.utils.service.model;
+
+public record PurgeResult(long objects, long bytes) {
+    public static final PurgeResult EMPTY = new PurgeResult(0, 0);
+
+    public PurgeResult plus(PurgeResult other) {
+        return new PurgeResult(objects + other.objects, bytes + other.bytes);
+    }
+}
@@ -0,0 +1,18 @@
+CREATE SEQUENCE IF NOT EXISTS account_deletion_job_id_seq INCREMENT BY 1;
+
+CREATE TABLE IF NOT EXISTS account_deletion_job
+(
+    id              INTEGER PRIMARY KEY DEFAULT nextval('account_deletion_job_id_seq'),
+    account_uuid    VARCHAR(255) NOT NULL,
+    user_id         INTEGER      NOT NULL,
+    stage           VARCHAR(32)  NOT NULL,
+    status          VARCHAR(32)  NOT NULL,
+    attempts        INTEGER      NOT NULL DEFAULT 0,
+    last_error      VARCHAR(1000),
+    created_at      TIMESTAMP    NOT NULL,
+    updated_at      TIMESTAMP    NOT NULL,
+    next_attempt_at TIMESTAMP    NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS account_deletion_job_account_uuid_idx ON account_deletion_job (account_uuid);
+CREATE INDEX IF NOT EXISTS account_deletion_job_claim_idx ON account_deletion_job (status, next_attempt_at);
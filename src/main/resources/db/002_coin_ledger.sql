@@ -0,0 +1,13 @@
+CREATE SEQUENCE IF NOT EXISTS coin_ledger_id_seq INCREMENT BY 1;
+
+CREATE TABLE IF NOT EXISTS coin_ledger
+(
+    id           INTEGER PRIMARY KEY DEFAULT nextval('coin_ledger_id_seq'),
+    account_uuid VARCHAR(255) NOT NULL,
+    delta        INTEGER      NOT NULL,
+    reason       VARCHAR(32)  NOT NULL,
+    reference    VARCHAR(255),
+    created_at   TIMESTAMP    NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS coin_ledger_account_uuid_idx ON coin_ledger (account_uuid, id);
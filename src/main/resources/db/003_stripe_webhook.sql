@@ -0,0 +1,15 @@
+ALTER TABLE payments_history ADD COLUMN IF NOT EXISTS payment_intent_id VARCHAR(255);
+ALTER TABLE payments_history ADD COLUMN IF NOT EXISTS coins INTEGER;
+
+CREATE UNIQUE INDEX IF NOT EXISTS payments_history_payment_intent_id_idx ON payments_history (payment_intent_id);
+
+CREATE TABLE IF NOT EXISTS stripe_webhook_event
+(
+    event_id          VARCHAR(255) PRIMARY KEY,
+    payment_intent_id VARCHAR(255) NOT NULL,
+    status            VARCHAR(32)  NOT NULL,
+    received_at       TIMESTAMP    NOT NULL,
+    processed_at      TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS stripe_webhook_event_status_idx ON stripe_webhook_event (status, received_at);
@@ -0,0 +1,7 @@
+DELETE FROM user_devices duplicate
+    USING user_devices kept
+WHERE duplicate.user_id = kept.user_id
+  AND duplicate.device_key = kept.device_key
+  AND duplicate.id > kept.id;
+
+CREATE UNIQUE INDEX IF NOT EXISTS user_devices_user_id_device_key_idx ON user_devices (user_id, device_key);
@@ -0,0 +1,12 @@
+-- hibernate allocates ids in blocks of 50 (pooled-lo), keep INCREMENT BY in sync with allocationSize
+ALTER SEQUENCE user_details_id_seq INCREMENT BY 50;
+ALTER SEQUENCE address_id_seq INCREMENT BY 50;
+ALTER SEQUENCE contact_id_seq INCREMENT BY 50;
+ALTER SEQUENCE payments_history_id_seq INCREMENT BY 50;
+ALTER SEQUENCE account_deletion_job_id_seq INCREMENT BY 50;
+ALTER SEQUENCE coin_ledger_id_seq INCREMENT BY 50;
+
+-- user_devices used to share user_details_id_seq
+CREATE SEQUENCE IF NOT EXISTS user_devices_id_seq INCREMENT BY 50;
+SELECT setval('user_devices_id_seq', (SELECT coalesce(max(id), 0) + 1 FROM user_devices), false);
+ALTER TABLE user_devices ALTER COLUMN id SET DEFAULT nextval('user_devices_id_seq');
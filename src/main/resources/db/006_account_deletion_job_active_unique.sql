@@ -0,0 +1,10 @@
+-- at most one PENDING or RUNNING job per account, the oldest one keeps running
+DELETE FROM account_deletion_job duplicate
+    USING account_deletion_job kept
+WHERE duplicate.account_uuid = kept.account_uuid
+  AND duplicate.status IN ('PENDING', 'RUNNING')
+  AND kept.status IN ('PENDING', 'RUNNING')
+  AND duplicate.id > kept.id;
+
+CREATE UNIQUE INDEX IF NOT EXISTS account_deletion_job_active_account_uuid_idx ON account_deletion_job (account_uuid)
+    WHERE status IN ('PENDING', 'RUNNING');
@@ -1,7 +1,9 @@
 package com.auxby.usermanager.api.v1.auth;
 
+import com.auxby.usermanager.api.v1.auth.model.AuthGoogle;
 import com.auxby.usermanager.api.v1.auth.model.AuthInfo;
 import com.auxby.usermanager.api.v1.auth.model.AuthResponse;
+import com.auxby.usermanager.api.v1.user.UserLastSeenBuffer;
 import com.auxby.usermanager.api.v1.user.UserService;
 import com.auxby.usermanager.exception.SignInException;
 import com.auxby.usermanager.exception.UserEmailNotValidatedException;
@@ -19,15 +21,18 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import reactor.core.publisher.Mono;
 
 import static com.auxby.usermanager.utils.TestUtils.getUrl;
+import static com.auxby.usermanager.utils.enums.CustomHttpStatus.BAD_CREDENTIALS;
 import static com.auxby.usermanager.utils.enums.CustomHttpStatus.USER_EMAIL_NOT_VALIDATED;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @ExtendWith(SpringExtension.class)
 @AutoConfigureMockMvc(addFilters = false)
@@ -42,6 +47,8 @@ class AuthControllerTest {
     @MockBean
     private AdapterConfig adapterConfig;
     @MockBean
+    private UserLastSeenBuffer lastSeenBuffer;
+    @MockBean
     private UserService userService;
 
     @BeforeEach
@@ -54,49 +61,59 @@ class AuthControllerTest {
     @Test
     @SneakyThrows
     void login_shouldReturnToken() {
-        when(authService.login(any()))
-                .thenReturn(new AuthResponse("test-token"));
+        when(authService.loginAsync(any()))
+                .thenReturn(Mono.just(new AuthResponse("test-token")));
 
-        mockMvc.perform(post(getUrl("login"))
+        var result = mockMvc.perform(post(getUrl("login"))
                         .content(mapper.writeValueAsString(new AuthInfo("test@gmail.com", "testPassword")))
                         .contentType(MediaType.APPLICATION_JSON)
                         .with(csrf())
                         .accept(MediaType.APPLICATION_JSON))
-                .andExpect(status().isOk());
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").value("test-token"));
     }
 
     @Test
     @SneakyThrows
     void login_shouldFail_whenEmailNotValidatedExceptionIsThrown() {
-        when(authService.login(any()))
-                .thenThrow(new UserEmailNotValidatedException("Test exception."));
+        when(authService.loginAsync(any()))
+                .thenReturn(Mono.error(new UserEmailNotValidatedException("Test exception.")));
 
-        mockMvc.perform(post(getUrl("login"))
+        var result = mockMvc.perform(post(getUrl("login"))
                         .content(mapper.writeValueAsString(new AuthInfo("test@gmail.com", "testPassword")))
                         .contentType(MediaType.APPLICATION_JSON)
                         .with(csrf())
                         .accept(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().is(USER_EMAIL_NOT_VALIDATED.getCode()));
     }
 
     @Test
     @SneakyThrows
     void login_shouldFail_whenSignInExceptionExceptionIsThrown() {
-        when(authService.login(any()))
-                .thenThrow(new SignInException("Test exception."));
+        when(authService.loginAsync(any()))
+                .thenReturn(Mono.error(new SignInException("Test exception.")));
 
-        mockMvc.perform(post(getUrl("login"))
+        var result = mockMvc.perform(post(getUrl("login"))
                         .content(mapper.writeValueAsString(new AuthInfo("test@gmail.com", "testPassword")))
                         .contentType(MediaType.APPLICATION_JSON)
                         .with(csrf()))
-                .andExpect(status().isUnauthorized());
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().is(BAD_CREDENTIALS.getCode()));
     }
 
     @Test
     @SneakyThrows
     void login_shouldThrowException_whenEmailNotSet() {
-        when(authService.login(any()))
-                .thenReturn(new AuthResponse("test-token"));
+        when(authService.loginAsync(any()))
+                .thenReturn(Mono.just(new AuthResponse("test-token")));
 
         mockMvc.perform(post(getUrl("login"))
                         .content(mapper.writeValueAsString(new AuthInfo("", "testPassword")))
@@ -108,32 +125,55 @@ class AuthControllerTest {
     @Test
     @SneakyThrows
     void resetPassword() {
-        doReturn(true).when(authService)
-                .resetPassword(any());
+        when(authService.resetPasswordAsync(any()))
+                .thenReturn(Mono.just(true));
 
-        mockMvc.perform(post(getUrl("reset"))
+        var result = mockMvc.perform(post(getUrl("reset"))
                         .contentType(MediaType.APPLICATION_JSON)
                         .param("email", "test@gmail.com")
                         .with(csrf()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk());
         ArgumentCaptor<String> emailArg = ArgumentCaptor.forClass(String.class);
-        verify(authService, times(1)).resetPassword(emailArg.capture());
+        verify(authService, times(1)).resetPasswordAsync(emailArg.capture());
         assertEquals("test@gmail.com", emailArg.getValue());
     }
 
     @Test
     @SneakyThrows
     void resendVerificationLink() {
-        doReturn(true).when(authService)
-                .resendVerificationLink(any());
+        when(authService.resendVerificationLinkAsync(any()))
+                .thenReturn(Mono.just(true));
 
-        mockMvc.perform(post(getUrl("resend-verification-link"))
+        var result = mockMvc.perform(post(getUrl("resend-verification-link"))
                         .contentType(MediaType.APPLICATION_JSON)
                         .param("email", "test@gmail.com")
                         .with(csrf()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk());
         ArgumentCaptor<String> emailArg = ArgumentCaptor.forClass(String.class);
-        verify(authService, times(1)).resendVerificationLink(emailArg.capture());
+        verify(authService, times(1)).resendVerificationLinkAsync(emailArg.capture());
         assertEquals("test@gmail.com", emailArg.getValue());
     }
-}
\ No newline at end of file
+
+    @Test
+    @SneakyThrows
+    void googleAuth_shouldReturnToken() {
+        when(authService.googleAuthAsync(any()))
+                .thenReturn(Mono.just(new AuthResponse("test-token")));
+
+        var result = mockMvc.perform(post(getUrl("googleAuth"))
+                        .content(mapper.writeValueAsString(new AuthGoogle(null, "google-access-token")))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .with(csrf()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").value("test-token"));
+    }
+}
@@ -1,22 +1,41 @@
 package com.auxby.usermanager.api.v1.auth;
 
+import com.auxby.usermanager.api.v1.auth.model.AuthGoogle;
 import com.auxby.usermanager.api.v1.auth.model.AuthInfo;
 import com.auxby.usermanager.api.v1.user.UserService;
+import com.auxby.usermanager.config.properties.CacheProps;
 import com.auxby.usermanager.exception.SignInException;
 import com.auxby.usermanager.exception.UserEmailNotValidatedException;
+import com.auxby.usermanager.utils.metrics.DependencyMetrics;
 import com.auxby.usermanager.utils.service.KeycloakService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.keycloak.representations.idm.UserRepresentation;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import javax.persistence.EntityNotFoundException;
 
 import static com.auxby.usermanager.utils.TestMock.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -26,70 +45,190 @@ class AuthServiceTest {
     private UserService userService;
     @Mock
     private KeycloakService keycloakService;
+    @Spy
+    private EmailVerifiedCache emailVerifiedCache = new EmailVerifiedCache(new CacheProps(), new SimpleMeterRegistry());
+    @Spy
+    private DependencyMetrics dependencyMetrics = new DependencyMetrics(new SimpleMeterRegistry());
     @InjectMocks
     private AuthService authService;
 
+    @BeforeEach
+    void setup() {
+        ReflectionTestUtils.setField(authService, "authBlockingScheduler", Schedulers.immediate());
+    }
+
+    @Test
+    void loginAsync_shouldSkipKeycloakEmailCheck_whenEmailVerifiedIsCached() {
+        UserRepresentation mockUserRepresentation = mock(UserRepresentation.class);
+        when(mockUserRepresentation.isEmailVerified())
+                .thenReturn(true);
+        when(userService.findAccountUuid(any()))
+                .thenReturn(mockUserDetails().getAccountUuid());
+        when(keycloakService.getUserRepresentationAsync(any()))
+                .thenReturn(Mono.just(mockUserRepresentation));
+        when(keycloakService.performLoginAsync(any()))
+                .thenReturn(Mono.just(mockKeycloakAuthResponse()));
+
+        authService.loginAsync(new AuthInfo("test@email.com", "testPass")).block();
+        authService.loginAsync(new AuthInfo("test@email.com", "testPass")).block();
+        verify(keycloakService, times(1)).getUserRepresentationAsync(any());
+        verify(keycloakService, times(2)).performLoginAsync(any());
+    }
+
+    @Test
+    void loginAsync_shouldNotCacheEmailCheck_whenEmailNotVerified() {
+        UserRepresentation mockUserRepresentation = mock(UserRepresentation.class);
+        when(mockUserRepresentation.isEmailVerified())
+                .thenReturn(false);
+        when(userService.findAccountUuid(any()))
+                .thenReturn(mockUserDetails().getAccountUuid());
+        when(keycloakService.getUserRepresentationAsync(any()))
+                .thenReturn(Mono.just(mockUserRepresentation));
+
+        var request = new AuthInfo("test@email.com", "testPass");
+        assertThrows(UserEmailNotValidatedException.class, () -> authService.loginAsync(request).block());
+        assertThrows(UserEmailNotValidatedException.class, () -> authService.loginAsync(request).block());
+        verify(keycloakService, times(2)).getUserRepresentationAsync(any());
+    }
+
     @Test
-    void login_shouldReturnToken() {
+    void loginAsync_shouldThrowSignInException_whenKeycloakReturnsNothing() {
         UserRepresentation mockUserRepresentation = mock(UserRepresentation.class);
         when(mockUserRepresentation.isEmailVerified())
                 .thenReturn(true);
-        when(userService.findUser(any()))
-                .thenReturn(mockUserDetails());
-        when(keycloakService.getUserRepresentation(any()))
-                .thenReturn(mockUserRepresentation);
-        when(keycloakService.performLogin(any()))
-                .thenReturn(mockKeycloakAuthResponse());
-
-        var response = authService.login(new AuthInfo("test@email.com", "testPass"));
+        when(userService.findAccountUuid(any()))
+                .thenReturn(mockUserDetails().getAccountUuid());
+        when(keycloakService.getUserRepresentationAsync(any()))
+                .thenReturn(Mono.just(mockUserRepresentation));
+        when(keycloakService.performLoginAsync(any()))
+                .thenReturn(Mono.empty());
+
+        var response = authService.loginAsync(new AuthInfo("test@email.com", "testPass"));
+        assertThrows(SignInException.class, response::block);
+    }
+
+    @Test
+    void loginAsync_shouldFail_whenUserNotFound() {
+        when(userService.findAccountUuid(any()))
+                .thenThrow(new EntityNotFoundException("Username test@email.com not found."));
+
+        var response = authService.loginAsync(new AuthInfo("test@email.com", "testPass"));
+        assertThrows(EntityNotFoundException.class, response::block);
+        verifyNoInteractions(keycloakService);
+    }
+
+    @Test
+    void loginAsync_shouldReturnToken() {
+        UserRepresentation mockUserRepresentation = mock(UserRepresentation.class);
+        when(mockUserRepresentation.isEmailVerified())
+                .thenReturn(true);
+        when(userService.findAccountUuid(any()))
+                .thenReturn(mockUserDetails().getAccountUuid());
+        when(keycloakService.getUserRepresentationAsync(any()))
+                .thenReturn(Mono.just(mockUserRepresentation));
+        when(keycloakService.performLoginAsync(any()))
+                .thenReturn(Mono.just(mockKeycloakAuthResponse()));
+
+        var response = authService.loginAsync(new AuthInfo("test@email.com", "testPass"))
+                .block();
+        assertNotNull(response);
         assertEquals("access_token", response.token());
     }
 
     @Test
-    void login_shouldThrowException_whenUserNotFound() {
+    void loginAsync_shouldThrowSignInException_whenKeycloakLoginFails() {
         UserRepresentation mockUserRepresentation = mock(UserRepresentation.class);
         when(mockUserRepresentation.isEmailVerified())
                 .thenReturn(true);
-        when(userService.findUser(any()))
-                .thenReturn(mockUserDetails());
-        when(keycloakService.getUserRepresentation(any()))
-                .thenReturn(mockUserRepresentation);
+        when(userService.findAccountUuid(any()))
+                .thenReturn(mockUserDetails().getAccountUuid());
+        when(keycloakService.getUserRepresentationAsync(any()))
+                .thenReturn(Mono.just(mockUserRepresentation));
+        when(keycloakService.performLoginAsync(any()))
+                .thenReturn(Mono.error(mock(WebClientResponseException.class)));
 
-        var request = new AuthInfo("test@email.com", "testPass");
-        assertThrows(SignInException.class, () -> authService.login(request));
+        var response = authService.loginAsync(new AuthInfo("test@email.com", "testPass"));
+        assertThrows(SignInException.class, response::block);
     }
 
     @Test
-    void login_shouldThrowException_whenEmailNotVerified() {
+    void loginAsync_shouldThrowException_whenEmailNotVerified() {
         UserRepresentation mockUserRepresentation = mock(UserRepresentation.class);
         when(mockUserRepresentation.isEmailVerified())
                 .thenReturn(false);
-        when(userService.findUser(any()))
-                .thenReturn(mockUserDetails());
-        when(keycloakService.getUserRepresentation(any()))
-                .thenReturn(mockUserRepresentation);
+        when(userService.findAccountUuid(any()))
+                .thenReturn(mockUserDetails().getAccountUuid());
+        when(keycloakService.getUserRepresentationAsync(any()))
+                .thenReturn(Mono.just(mockUserRepresentation));
 
-        var request = new AuthInfo("test@email.com", "testPass");
-        assertThrows(UserEmailNotValidatedException.class, () -> authService.login(request));
+        var response = authService.loginAsync(new AuthInfo("test@email.com", "testPass"));
+        assertThrows(UserEmailNotValidatedException.class, response::block);
+        verify(keycloakService, times(0)).performLoginAsync(any());
     }
 
     @Test
-    void resendVerificationLink_shouldSucceed() {
+    void resendVerificationLinkAsync_shouldSucceed() {
         var mockUser = mockUserDetails();
-        when(userService.findUser(anyString()))
-                .thenReturn(mockUser);
-        authService.resendVerificationLink("tes@email");
+        when(userService.findAccountUuid(anyString()))
+                .thenReturn(mockUser.getAccountUuid());
+        when(keycloakService.sendVerificationEmailLinkAsync(anyString()))
+                .thenReturn(Mono.empty());
+
+        assertEquals(true, authService.resendVerificationLinkAsync("tes@email").block());
         ArgumentCaptor<String> userUuidArg = ArgumentCaptor.forClass(String.class);
-        verify(keycloakService, times(1)).sendVerificationEmailLink(userUuidArg.capture());
+        verify(keycloakService, times(1)).sendVerificationEmailLinkAsync(userUuidArg.capture());
         assertEquals(mockUser.getAccountUuid(), userUuidArg.getValue());
     }
 
     @Test
-    void resetPassword_shouldSucceed() {
-        authService.resetPassword("tes@email");
-        ArgumentCaptor<String> emailArg = ArgumentCaptor.forClass(String.class);
-        verify(userService, times(1)).sendResetPasswordLink(emailArg.capture());
-        assertEquals("tes@email", emailArg.getValue());
+    void resetPasswordAsync_shouldSucceed() {
+        var mockUser = mockUserDetails();
+        when(userService.findAccountUuid("tes@email"))
+                .thenReturn(mockUser.getAccountUuid());
+        when(keycloakService.sendResetPasswordLinkAsync(anyString()))
+                .thenReturn(Mono.empty());
+
+        assertEquals(true, authService.resetPasswordAsync("tes@email").block());
+        verify(keycloakService, times(1)).sendResetPasswordLinkAsync(mockUser.getAccountUuid());
     }
 
-}
\ No newline at end of file
+    @Test
+    void googleAuthAsync_shouldLoginExistingGoogleUser() {
+        ReflectionTestUtils.setField(authService, "webClient", WebClient.builder()
+                .exchangeFunction(request -> Mono.just(ClientResponse.create(HttpStatus.OK)
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .body("{\"id\":\"42\",\"email\":\"test@gmail.com\",\"given_name\":\"Test\",\"family_name\":\"User\"}")
+                        .build()))
+                .build());
+        UserRepresentation mockUserRepresentation = mock(UserRepresentation.class);
+        when(mockUserRepresentation.isEmailVerified())
+                .thenReturn(true);
+        when(userService.isGoogleAccount("test@gmail.com"))
+                .thenReturn(true);
+        when(userService.findAccountUuid("test@gmail.com"))
+                .thenReturn(mockUserDetails().getAccountUuid());
+        when(keycloakService.getUserRepresentationAsync(any()))
+                .thenReturn(Mono.just(mockUserRepresentation));
+        when(keycloakService.performLoginAsync(any()))
+                .thenReturn(Mono.just(mockKeycloakAuthResponse()));
+
+        var response = authService.googleAuthAsync(new AuthGoogle(null, "google-access-token")).block();
+        assertNotNull(response);
+        assertEquals("access_token", response.token());
+        verify(userService, times(0)).createUser(any(), anyBoolean());
+        ArgumentCaptor<AuthInfo> authInfoArg = ArgumentCaptor.forClass(AuthInfo.class);
+        verify(keycloakService, times(1)).performLoginAsync(authInfoArg.capture());
+        assertEquals(new AuthInfo("test@gmail.com", "Pwd.42"), authInfoArg.getValue());
+    }
+
+    @Test
+    void googleAuthAsync_shouldThrowSignInException_whenAccessTokenInvalid() {
+        ReflectionTestUtils.setField(authService, "webClient", WebClient.builder()
+                .exchangeFunction(request -> Mono.just(ClientResponse.create(HttpStatus.UNAUTHORIZED).build()))
+                .build());
+
+        var response = authService.googleAuthAsync(new AuthGoogle(null, "expired-token"));
+        assertThrows(SignInException.class, response::block);
+        verifyNoInteractions(userService, keycloakService);
+    }
+}
@@ -0,0 +1,82 @@
+package com.auxby.usermanager.api.v1.payment;
+
+import com.auxby.usermanager.api.v1.payment.model.ConfirmedPaymentRequest;
+import com.auxby.usermanager.api.v1.user.UserService;
+import com.auxby.usermanager.entity.PaymentHistory;
+import com.auxby.usermanager.utils.service.StripeGateway;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.persistence.EntityNotFoundException;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StripePaymentServiceTest {
+    @InjectMocks
+    private StripePaymentService stripePaymentService;
+    @Mock
+    private PaymentHistoryRepository paymentHistoryRepository;
+    @Mock
+    private UserService userService;
+    @Mock
+    private StripeGateway stripeGateway;
+
+    @Test
+    void confirmedPayment_shouldCreditStoredCoins() {
+        when(paymentHistoryRepository.findByPaymentSecretAndAccountUuid("secret", "uuid"))
+                .thenReturn(Optional.of(mockPayment(50)));
+        when(paymentHistoryRepository.markSucceeded(List.of(1)))
+                .thenReturn(1);
+
+        stripePaymentService.confirmedPayment(new ConfirmedPaymentRequest("secret", 500), "uuid");
+        verify(userService, times(1)).addUserResources(50, "uuid", "payment:1");
+    }
+
+    @Test
+    void confirmedPayment_shouldCreditRequestedCoins_whenIntentHasNone() {
+        when(paymentHistoryRepository.findByPaymentSecretAndAccountUuid("secret", "uuid"))
+                .thenReturn(Optional.of(mockPayment(null)));
+        when(paymentHistoryRepository.markSucceeded(List.of(1)))
+                .thenReturn(1);
+
+        stripePaymentService.confirmedPayment(new ConfirmedPaymentRequest("secret", 20), "uuid");
+        verify(userService, times(1)).addUserResources(20, "uuid", "payment:1");
+    }
+
+    @Test
+    void confirmedPayment_shouldNotCreditTwice_whenAlreadySucceeded() {
+        when(paymentHistoryRepository.findByPaymentSecretAndAccountUuid("secret", "uuid"))
+                .thenReturn(Optional.of(mockPayment(50)));
+        when(paymentHistoryRepository.markSucceeded(List.of(1)))
+                .thenReturn(0);
+
+        stripePaymentService.confirmedPayment(new ConfirmedPaymentRequest("secret", 50), "uuid");
+        verify(userService, times(0)).addUserResources(any(), any(), any());
+    }
+
+    @Test
+    void confirmedPayment_shouldFail_whenIntentNotFound() {
+        when(paymentHistoryRepository.findByPaymentSecretAndAccountUuid(anyString(), anyString()))
+                .thenReturn(Optional.empty());
+
+        var request = new ConfirmedPaymentRequest("secret", 50);
+        assertThrows(EntityNotFoundException.class, () -> stripePaymentService.confirmedPayment(request, "uuid"));
+    }
+
+    private PaymentHistory mockPayment(Integer coins) {
+        var payment = new PaymentHistory();
+        payment.setId(1);
+        payment.setAccountUuid("uuid");
+        payment.setStatus("INTENT");
+        payment.setCoins(coins);
+        return payment;
+    }
+}
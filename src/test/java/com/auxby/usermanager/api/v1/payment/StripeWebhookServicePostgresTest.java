@@ -0,0 +1,44 @@
+package com.auxby.usermanager.api.v1.payment;
+
+import com.auxby.usermanager.api.v1.user.CoinLedgerService;
+import com.auxby.usermanager.api.v1.user.UserCacheInvalidator;
+import com.auxby.usermanager.config.properties.StripeWebhookProps;
+import com.auxby.usermanager.utils.PostgresTest;
+import com.auxby.usermanager.utils.StripeWebhookSigner;
+import com.auxby.usermanager.utils.enums.WebhookEventStatus;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Import({StripeWebhookService.class, StripeWebhookProps.class})
+class StripeWebhookServicePostgresTest extends PostgresTest {
+    private static final String SECRET = "whsec_test";
+    @Autowired
+    private StripeWebhookService stripeWebhookService;
+    @Autowired
+    private StripeWebhookEventRepository eventRepository;
+    @Autowired
+    private StripeWebhookProps webhookProps;
+    @MockBean
+    private CoinLedgerService coinLedgerService;
+    @MockBean
+    private UserCacheInvalidator userCacheInvalidator;
+
+    @Test
+    @SneakyThrows
+    void accept_shouldQueueEventOnce() {
+        webhookProps.setSecret(SECRET);
+        var payload = StripeWebhookSigner.paymentIntentSucceeded("evt_pg_1", "pi_pg_1");
+
+        stripeWebhookService.accept(payload, StripeWebhookSigner.signature(payload, SECRET));
+        stripeWebhookService.accept(payload, StripeWebhookSigner.signature(payload, SECRET));
+        var events = eventRepository.findAll();
+        assertEquals(1, events.size());
+        assertEquals("pi_pg_1", events.get(0).getPaymentIntentId());
+        assertEquals(WebhookEventStatus.PENDING, events.get(0).getStatus());
+    }
+}
@@ -0,0 +1,127 @@
+package com.auxby.usermanager.api.v1.payment;
+
+import com.auxby.usermanager.api.v1.user.CoinLedgerService;
+import com.auxby.usermanager.api.v1.user.UserCacheInvalidator;
+import com.auxby.usermanager.api.v1.user.model.CoinCredit;
+import com.auxby.usermanager.config.properties.StripeWebhookProps;
+import com.auxby.usermanager.entity.PaymentHistory;
+import com.auxby.usermanager.entity.StripeWebhookEvent;
+import com.auxby.usermanager.utils.StripeWebhookSigner;
+import com.auxby.usermanager.utils.enums.CoinChangeReason;
+import com.auxby.usermanager.utils.enums.WebhookEventStatus;
+import com.stripe.exception.SignatureVerificationException;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StripeWebhookServiceTest {
+    private static final String SECRET = "whsec_test";
+    @Mock
+    private StripeWebhookEventRepository eventRepository;
+    @Mock
+    private PaymentHistoryRepository paymentHistoryRepository;
+    @Mock
+    private CoinLedgerService coinLedgerService;
+    @Mock
+    private UserCacheInvalidator userCacheInvalidator;
+
+    private StripeWebhookService stripeWebhookService;
+
+    @BeforeEach
+    void setup() {
+        var webhookProps = new StripeWebhookProps();
+        webhookProps.setSecret(SECRET);
+        stripeWebhookService = new StripeWebhookService(eventRepository, paymentHistoryRepository, coinLedgerService,
+                userCacheInvalidator, webhookProps);
+    }
+
+    @Test
+    @SneakyThrows
+    void accept_shouldQueueSucceededPaymentIntent() {
+        var payload = StripeWebhookSigner.paymentIntentSucceeded("evt_1", "pi_1");
+
+        stripeWebhookService.accept(payload, StripeWebhookSigner.signature(payload, SECRET));
+        verify(eventRepository, times(1)).insertIfAbsent(eq("evt_1"), eq("pi_1"), any());
+    }
+
+    @Test
+    void accept_shouldFail_whenSignatureInvalid() {
+        var payload = StripeWebhookSigner.paymentIntentSucceeded("evt_1", "pi_1");
+        var signature = StripeWebhookSigner.signature(payload, "whsec_other");
+
+        assertThrows(SignatureVerificationException.class, () -> stripeWebhookService.accept(payload, signature));
+        verifyNoInteractions(eventRepository);
+    }
+
+    @Test
+    void accept_shouldFail_whenSignatureExpired() {
+        var payload = StripeWebhookSigner.paymentIntentSucceeded("evt_1", "pi_1");
+        var signature = StripeWebhookSigner.signature(payload, SECRET, Instant.now().minusSeconds(3600).getEpochSecond());
+
+        assertThrows(SignatureVerificationException.class, () -> stripeWebhookService.accept(payload, signature));
+        verifyNoInteractions(eventRepository);
+    }
+
+    @Test
+    @SneakyThrows
+    void accept_shouldIgnoreOtherEventTypes() {
+        var payload = StripeWebhookSigner.event("evt_1", "payment_intent.created", "pi_1");
+
+        stripeWebhookService.accept(payload, StripeWebhookSigner.signature(payload, SECRET));
+        verifyNoInteractions(eventRepository);
+    }
+
+    @Test
+    void processBatch_shouldCreditPaymentsInBulk() {
+        when(eventRepository.claimPending(100))
+                .thenReturn(List.of(mockEvent("evt_1", "pi_1"), mockEvent("evt_2", "pi_1"), mockEvent("evt_3", "pi_2")));
+        when(paymentHistoryRepository.findByPaymentIntentIdInAndStatus(Set.of("pi_1", "pi_2"), "INTENT"))
+                .thenReturn(List.of(mockPayment(1, "uuid", 50), mockPayment(2, "uuid-2", null)));
+
+        assertEquals(3, stripeWebhookService.processBatch());
+        verify(paymentHistoryRepository, times(1)).markSucceeded(List.of(1));
+        verify(coinLedgerService, times(1))
+                .creditAll(List.of(new CoinCredit("uuid", 50, "payment:1")), CoinChangeReason.PURCHASE);
+        verify(userCacheInvalidator, times(1)).invalidate("uuid");
+        verify(eventRepository, times(1)).markProcessed(eq(List.of("evt_1", "evt_2", "evt_3")), any());
+    }
+
+    @Test
+    void processBatch_shouldDoNothing_whenNoEventsPending() {
+        when(eventRepository.claimPending(100))
+                .thenReturn(List.of());
+
+        assertEquals(0, stripeWebhookService.processBatch());
+        verifyNoInteractions(paymentHistoryRepository, coinLedgerService);
+    }
+
+    private StripeWebhookEvent mockEvent(String eventId, String paymentIntentId) {
+        var event = new StripeWebhookEvent();
+        event.setEventId(eventId);
+        event.setPaymentIntentId(paymentIntentId);
+        event.setStatus(WebhookEventStatus.PENDING);
+        return event;
+    }
+
+    private PaymentHistory mockPayment(Integer id, String accountUuid, Integer coins) {
+        var payment = new PaymentHistory();
+        payment.setId(id);
+        payment.setAccountUuid(accountUuid);
+        payment.setCoins(coins);
+        payment.setStatus("INTENT");
+        return payment;
+    }
+}
@@ -0,0 +1,46 @@
+package com.auxby.usermanager.api.v1.payment;
+
+import com.auxby.usermanager.config.properties.StripeWebhookProps;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.TaskScheduler;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StripeWebhookWorkerTest {
+    @Mock
+    private StripeWebhookService stripeWebhookService;
+    @Mock
+    private TaskScheduler taskScheduler;
+    private StripeWebhookWorker stripeWebhookWorker;
+
+    @BeforeEach
+    void setup() {
+        var webhookProps = new StripeWebhookProps();
+        webhookProps.setBatchSize(100);
+        webhookProps.setMaxBatchesPerPoll(3);
+        stripeWebhookWorker = new StripeWebhookWorker(stripeWebhookService, webhookProps, taskScheduler);
+    }
+
+    @Test
+    void drain_shouldStop_whenBatchNotFull() {
+        when(stripeWebhookService.processBatch())
+                .thenReturn(100, 40);
+
+        stripeWebhookWorker.drain();
+        verify(stripeWebhookService, times(2)).processBatch();
+    }
+
+    @Test
+    void drain_shouldLeaveBacklogForNextPoll() {
+        when(stripeWebhookService.processBatch())
+                .thenReturn(100);
+
+        stripeWebhookWorker.drain();
+        verify(stripeWebhookService, times(3)).processBatch();
+    }
+}
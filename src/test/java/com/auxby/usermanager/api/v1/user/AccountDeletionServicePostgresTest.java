@@ -0,0 +1,57 @@
+package com.auxby.usermanager.api.v1.user;
+
+import com.auxby.usermanager.config.properties.AccountDeletionProps;
+import com.auxby.usermanager.utils.PostgresTest;
+import com.auxby.usermanager.utils.TestMock;
+import com.auxby.usermanager.utils.enums.DeletionJobStage;
+import com.auxby.usermanager.utils.enums.DeletionJobStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.jdbc.Sql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Import({AccountDeletionService.class, AccountDeletionProps.class})
+@Sql(scripts = "classpath:db/006_account_deletion_job_active_unique.sql")
+class AccountDeletionServicePostgresTest extends PostgresTest {
+    @Autowired
+    private AccountDeletionService accountDeletionService;
+    @Autowired
+    private AccountDeletionJobRepository jobRepository;
+
+    @BeforeEach
+    void setup() {
+        jobRepository.deleteAll();
+    }
+
+    @Test
+    void requestDeletion_shouldKeepOneActiveJob() {
+        var user = TestMock.mockUserDetails();
+        user.setId(10);
+
+        accountDeletionService.requestDeletion(user);
+        accountDeletionService.requestDeletion(user);
+        var jobs = jobRepository.findAll();
+        assertEquals(1, jobs.size());
+        assertEquals(DeletionJobStatus.PENDING, jobs.get(0).getStatus());
+        assertEquals(DeletionJobStage.KEYCLOAK, jobs.get(0).getStage());
+        assertEquals(10, jobs.get(0).getUserId());
+    }
+
+    @Test
+    void requestDeletion_shouldRecordNewJob_whenPreviousFailed() {
+        var user = TestMock.mockUserDetails();
+        user.setId(11);
+        accountDeletionService.requestDeletion(user);
+        var failed = jobRepository.findFirstByAccountUuidOrderByIdDesc(user.getAccountUuid()).orElseThrow();
+        failed.setStatus(DeletionJobStatus.FAILED);
+        jobRepository.save(failed);
+
+        accountDeletionService.requestDeletion(user);
+        var latest = jobRepository.findFirstByAccountUuidOrderByIdDesc(user.getAccountUuid()).orElseThrow();
+        assertEquals(DeletionJobStatus.PENDING, latest.getStatus());
+        assertEquals(2, jobRepository.count());
+    }
+}
@@ -0,0 +1,92 @@
+package com.auxby.usermanager.api.v1.user;
+
+import com.auxby.usermanager.config.properties.AccountDeletionProps;
+import com.auxby.usermanager.entity.AccountDeletionJob;
+import com.auxby.usermanager.utils.TestMock;
+import com.auxby.usermanager.utils.enums.DeletionJobStage;
+import com.auxby.usermanager.utils.enums.DeletionJobStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.persistence.EntityNotFoundException;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AccountDeletionServiceTest {
+    @Mock
+    private AccountDeletionJobRepository jobRepository;
+    @Mock
+    private UserRepository userRepository;
+    private AccountDeletionService accountDeletionService;
+
+    @BeforeEach
+    void setup() {
+        var props = new AccountDeletionProps();
+        props.setMaxAttempts(2);
+        accountDeletionService = new AccountDeletionService(jobRepository, userRepository, props);
+    }
+
+    @Test
+    void requestDeletion_shouldRecordPendingJob() {
+        var user = TestMock.mockUserDetails();
+        user.setId(10);
+
+        accountDeletionService.requestDeletion(user);
+        verify(jobRepository, times(1)).insertIfNoActiveJob(eq(user.getAccountUuid()), eq(10), any());
+        verify(jobRepository, times(0)).save(any());
+    }
+
+    @Test
+    void getDeletionStatus_shouldFail_whenNoJob() {
+        when(jobRepository.findFirstByAccountUuidOrderByIdDesc(anyString()))
+                .thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class, () -> accountDeletionService.getDeletionStatus("uuid"));
+    }
+
+    @Test
+    void completeStage_shouldMoveToNextStage() {
+        var job = mockJob(DeletionJobStage.DATABASE);
+        job.setAttempts(1);
+        when(jobRepository.findById(1))
+                .thenReturn(Optional.of(job));
+
+        var result = accountDeletionService.completeStage(1);
+        assertEquals(DeletionJobStage.COMPLETED, result.getStage());
+        assertEquals(DeletionJobStatus.COMPLETED, result.getStatus());
+        assertEquals(0, result.getAttempts());
+    }
+
+    @Test
+    void failStage_shouldRescheduleUntilMaxAttempts() {
+        var job = mockJob(DeletionJobStage.S3);
+        when(jobRepository.findById(1))
+                .thenReturn(Optional.of(job));
+
+        accountDeletionService.failStage(1, "Test exception.");
+        assertEquals(DeletionJobStatus.PENDING, job.getStatus());
+        assertEquals(DeletionJobStage.S3, job.getStage());
+        assertTrue(job.getNextAttemptAt().after(job.getUpdatedAt()));
+
+        accountDeletionService.failStage(1, "Test exception.");
+        assertEquals(DeletionJobStatus.FAILED, job.getStatus());
+        assertEquals("Test exception.", job.getLastError());
+    }
+
+    private AccountDeletionJob mockJob(DeletionJobStage stage) {
+        var job = new AccountDeletionJob();
+        job.setId(1);
+        job.setStage(stage);
+        job.setStatus(DeletionJobStatus.RUNNING);
+        return job;
+    }
+}
@@ -0,0 +1,129 @@
+package com.auxby.usermanager.api.v1.user;
+
+import com.auxby.usermanager.config.properties.AccountDeletionProps;
+import com.auxby.usermanager.entity.AccountDeletionJob;
+import com.auxby.usermanager.utils.enums.DeletionJobStage;
+import com.auxby.usermanager.utils.service.AmazonClientService;
+import com.auxby.usermanager.utils.service.KeycloakService;
+import com.auxby.usermanager.utils.service.model.PurgeResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import javax.ws.rs.NotFoundException;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AccountDeletionWorkerTest {
+    @Mock
+    private AccountDeletionService accountDeletionService;
+    @Mock
+    private KeycloakService keycloakService;
+    @Mock
+    private AmazonClientService awsService;
+    @Mock
+    private UserCacheInvalidator userCacheInvalidator;
+    @Mock
+    private TaskScheduler taskScheduler;
+    @Mock
+    private ThreadPoolTaskExecutor accountDeletionExecutor;
+    private AccountDeletionWorker accountDeletionWorker;
+
+    @BeforeEach
+    void setup() {
+        accountDeletionWorker = new AccountDeletionWorker(accountDeletionService, keycloakService, awsService, userCacheInvalidator,
+                new AccountDeletionProps(), taskScheduler, accountDeletionExecutor);
+    }
+
+    @Test
+    void process_shouldRunAllStages() {
+        when(accountDeletionService.findJob(1))
+                .thenReturn(mockJob(DeletionJobStage.KEYCLOAK));
+        when(accountDeletionService.completeStage(1))
+                .thenReturn(mockJob(DeletionJobStage.S3), mockJob(DeletionJobStage.DATABASE), mockJob(DeletionJobStage.COMPLETED));
+        when(awsService.purgeUserResources("uuid"))
+                .thenReturn(PurgeResult.EMPTY);
+
+        accountDeletionWorker.process(1);
+        verify(keycloakService, times(1)).deleteKeycloakUser("uuid");
+        verify(awsService, times(1)).deleteUserAvatar("uuid");
+        verify(accountDeletionService, times(1)).deleteUserData(10);
+        verify(accountDeletionService, times(3)).completeStage(1);
+        verify(accountDeletionService, times(0)).failStage(any(), any());
+    }
+
+    @Test
+    void process_shouldResumeFromCheckpoint() {
+        when(accountDeletionService.findJob(1))
+                .thenReturn(mockJob(DeletionJobStage.DATABASE));
+        when(accountDeletionService.completeStage(1))
+                .thenReturn(mockJob(DeletionJobStage.COMPLETED));
+
+        accountDeletionWorker.process(1);
+        verifyNoInteractions(keycloakService, awsService);
+        verify(accountDeletionService, times(1)).deleteUserData(10);
+        verify(userCacheInvalidator, times(1)).invalidate("uuid");
+    }
+
+    @Test
+    void process_shouldTreatMissingKeycloakUserAsDeleted() {
+        when(accountDeletionService.findJob(1))
+                .thenReturn(mockJob(DeletionJobStage.KEYCLOAK));
+        when(accountDeletionService.completeStage(1))
+                .thenReturn(mockJob(DeletionJobStage.COMPLETED));
+        doThrow(new NotFoundException()).when(keycloakService).deleteKeycloakUser("uuid");
+
+        accountDeletionWorker.process(1);
+        verify(accountDeletionService, times(1)).completeStage(1);
+    }
+
+    @Test
+    void process_shouldRecordFailure_whenStageFails() {
+        when(accountDeletionService.findJob(1))
+                .thenReturn(mockJob(DeletionJobStage.S3));
+        doThrow(new RuntimeException("Test exception.")).when(awsService).deleteUserAvatar("uuid");
+
+        accountDeletionWorker.process(1);
+        verify(accountDeletionService, times(1)).failStage(1, "Test exception.");
+        verify(accountDeletionService, times(0)).completeStage(any());
+        verify(accountDeletionService, times(0)).deleteUserData(any());
+    }
+
+    @Test
+    void poll_shouldClaimOnlyFreeWorkers() {
+        when(accountDeletionExecutor.getActiveCount())
+                .thenReturn(1);
+        when(accountDeletionService.claimJobs(anyInt()))
+                .thenReturn(List.of(1));
+
+        accountDeletionWorker.poll();
+        verify(accountDeletionService, times(1)).claimJobs(1);
+        verify(accountDeletionExecutor, times(1)).execute(any());
+    }
+
+    @Test
+    void poll_shouldNotClaim_whenAllWorkersAreBusy() {
+        when(accountDeletionExecutor.getActiveCount())
+                .thenReturn(2);
+
+        accountDeletionWorker.poll();
+        verify(accountDeletionService, times(0)).claimJobs(anyInt());
+    }
+
+    private AccountDeletionJob mockJob(DeletionJobStage stage) {
+        var job = new AccountDeletionJob();
+        job.setId(1);
+        job.setUserId(10);
+        job.setAccountUuid("uuid");
+        job.setStage(stage);
+        return job;
+    }
+}
@@ -0,0 +1,66 @@
+package com.auxby.usermanager.api.v1.user;
+
+import com.auxby.usermanager.config.properties.CoinLedgerProps;
+import com.auxby.usermanager.entity.CoinLedgerEntry;
+import com.auxby.usermanager.utils.PostgresTest;
+import com.auxby.usermanager.utils.enums.CoinChangeReason;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Import({CoinLedgerService.class, CoinLedgerProps.class})
+@Sql(statements = "alter table coin_ledger alter column id set default nextval('coin_ledger_id_seq')")
+class CoinLedgerServicePostgresTest extends PostgresTest {
+    @Autowired
+    private CoinLedgerService coinLedgerService;
+    @Autowired
+    private CoinLedgerRepository ledgerRepository;
+
+    @Test
+    void compact_shouldFoldOnlyEntriesOlderThanRetention() {
+        ledgerRepository.saveAll(List.of(
+                entry("uuid", 10, 120),
+                entry("uuid", 20, 100),
+                entry("uuid", 5, 1),
+                entry("single-uuid", 7, 120)));
+
+        assertEquals(1, coinLedgerService.compact());
+        var entries = history("uuid");
+        assertEquals(List.of(5, 30), entries.stream().map(CoinLedgerEntry::getDelta).toList());
+        assertEquals(CoinChangeReason.COMPACTED, entries.get(1).getReason());
+        assertEquals(1, history("single-uuid").size());
+
+        // the compacted entry has a newer id than the recent one, a second run must still keep the recent one
+        ledgerRepository.save(entry("uuid", 3, 95));
+        assertEquals(1, coinLedgerService.compact());
+        assertEquals(List.of(5, 33), history("uuid").stream()
+                .map(CoinLedgerEntry::getDelta)
+                .sorted()
+                .toList());
+    }
+
+    private List<CoinLedgerEntry> history(String accountUuid) {
+        return ledgerRepository.findByAccountUuidOrderByIdDesc(accountUuid, Pageable.unpaged())
+                .stream()
+                .sorted((first, second) -> second.getCreatedAt().compareTo(first.getCreatedAt()))
+                .toList();
+    }
+
+    private CoinLedgerEntry entry(String accountUuid, int delta, int daysAgo) {
+        var entry = new CoinLedgerEntry();
+        entry.setAccountUuid(accountUuid);
+        entry.setDelta(delta);
+        entry.setReason(CoinChangeReason.PURCHASE);
+        entry.setCreatedAt(Date.from(Instant.now().minus(Duration.ofDays(daysAgo))));
+        return entry;
+    }
+}
@@ -0,0 +1,139 @@
+package com.auxby.usermanager.api.v1.user;
+
+import com.auxby.usermanager.api.v1.user.model.CoinCredit;
+import com.auxby.usermanager.config.properties.CoinLedgerProps;
+import com.auxby.usermanager.entity.CoinLedgerEntry;
+import com.auxby.usermanager.entity.UserDetails;
+import com.auxby.usermanager.utils.enums.CoinChangeReason;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import javax.persistence.EntityNotFoundException;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CoinLedgerServiceTest {
+    @Mock
+    private CoinLedgerRepository ledgerRepository;
+    @Mock
+    private UserRepository userRepository;
+
+    private CoinLedgerService coinLedgerService;
+
+    @BeforeEach
+    void setup() {
+        coinLedgerService = new CoinLedgerService(ledgerRepository, userRepository, new CoinLedgerProps());
+    }
+
+    @Test
+    void credit_shouldUpdateBalanceAndAppendEntry() {
+        when(userRepository.addAvailableCoins("uuid", 5))
+                .thenReturn(1);
+
+        coinLedgerService.credit("uuid", 5, CoinChangeReason.PURCHASE, "payment:1");
+        ArgumentCaptor<CoinLedgerEntry> entryArg = ArgumentCaptor.forClass(CoinLedgerEntry.class);
+        verify(ledgerRepository, times(1)).save(entryArg.capture());
+        assertEquals("uuid", entryArg.getValue().getAccountUuid());
+        assertEquals(5, entryArg.getValue().getDelta());
+        assertEquals(CoinChangeReason.PURCHASE, entryArg.getValue().getReason());
+        assertEquals("payment:1", entryArg.getValue().getReference());
+        assertNotNull(entryArg.getValue().getCreatedAt());
+    }
+
+    @Test
+    void credit_shouldFail_whenUserNotFound() {
+        when(userRepository.addAvailableCoins("uuid", 5))
+                .thenReturn(0);
+
+        assertThrows(EntityNotFoundException.class, () -> coinLedgerService.credit("uuid", 5, CoinChangeReason.PURCHASE, null));
+        verify(ledgerRepository, times(0)).save(any());
+    }
+
+    @Test
+    void credit_shouldFail_whenCoinsNotPositive() {
+        assertThrows(IllegalArgumentException.class, () -> coinLedgerService.credit("uuid", 0, CoinChangeReason.PURCHASE, null));
+        verifyNoInteractions(userRepository, ledgerRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void creditAll_shouldUpdateEachAccountOnce() {
+        when(userRepository.addAvailableCoins("uuid", 30))
+                .thenReturn(1);
+        when(userRepository.addAvailableCoins("deleted-uuid", 5))
+                .thenReturn(0);
+
+        coinLedgerService.creditAll(List.of(new CoinCredit("uuid", 10, "payment:1"), new CoinCredit("uuid", 20, "payment:2"),
+                new CoinCredit("deleted-uuid", 5, "payment:3")), CoinChangeReason.PURCHASE);
+        ArgumentCaptor<List<CoinLedgerEntry>> entriesArg = ArgumentCaptor.forClass(List.class);
+        verify(ledgerRepository, times(1)).saveAll(entriesArg.capture());
+        assertEquals(List.of("payment:1", "payment:2"), entriesArg.getValue().stream().map(CoinLedgerEntry::getReference).toList());
+    }
+
+    @Test
+    void saveWithOpeningBalance_shouldSaveUserAndOpeningEntry() {
+        var user = new UserDetails();
+        user.setAccountUuid("uuid");
+        user.setAvailableCoins(100);
+        when(userRepository.save(user))
+                .thenReturn(user);
+
+        assertEquals(user, coinLedgerService.saveWithOpeningBalance(user));
+        ArgumentCaptor<CoinLedgerEntry> entryArg = ArgumentCaptor.forClass(CoinLedgerEntry.class);
+        verify(ledgerRepository, times(1)).save(entryArg.capture());
+        assertEquals("uuid", entryArg.getValue().getAccountUuid());
+        assertEquals(100, entryArg.getValue().getDelta());
+        assertEquals(CoinChangeReason.SIGNUP_BONUS, entryArg.getValue().getReason());
+    }
+
+    @Test
+    void getHistory_shouldReturnBalanceAndLatestChanges() {
+        var entry = new CoinLedgerEntry();
+        entry.setDelta(5);
+        entry.setReason(CoinChangeReason.PURCHASE);
+        when(userRepository.findAvailableCoins("uuid"))
+                .thenReturn(Optional.of(105));
+        when(ledgerRepository.findByAccountUuidOrderByIdDesc("uuid", PageRequest.of(0, 100)))
+                .thenReturn(List.of(entry));
+
+        var result = coinLedgerService.getHistory("uuid", -1, 1000);
+        assertEquals(105, result.availableCoins());
+        assertEquals(1, result.changes().size());
+        assertEquals(5, result.changes().get(0).delta());
+    }
+
+    @Test
+    void compact_shouldSkip_whenAnotherInstanceHoldsTheLock() {
+        when(ledgerRepository.tryAdvisoryLock(anyLong()))
+                .thenReturn(false);
+
+        assertEquals(0, coinLedgerService.compact());
+        verify(ledgerRepository, times(0)).compactBefore(any());
+    }
+
+    @Test
+    void compact_shouldFoldEntriesOlderThanRetention() {
+        when(ledgerRepository.tryAdvisoryLock(anyLong()))
+                .thenReturn(true);
+        when(ledgerRepository.compactBefore(any()))
+                .thenReturn(3);
+
+        long retentionStart = System.currentTimeMillis() - Duration.ofDays(90).toMillis();
+        assertEquals(3, coinLedgerService.compact());
+        ArgumentCaptor<Date> beforeArg = ArgumentCaptor.forClass(Date.class);
+        verify(ledgerRepository, times(1)).compactBefore(beforeArg.capture());
+        assertTrue(Math.abs(beforeArg.getValue().getTime() - retentionStart) < 60_000);
+    }
+}
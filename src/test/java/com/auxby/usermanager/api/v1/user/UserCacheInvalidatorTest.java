@@ -0,0 +1,43 @@
+package com.auxby.usermanager.api.v1.user;
+
+import com.auxby.usermanager.config.properties.CacheProps;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserCacheInvalidatorTest {
+    @Mock
+    private UserProfileCache userProfileCache;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void invalidate_shouldEvictLocallyAndNotifyOtherInstances() {
+        var invalidator = new UserCacheInvalidator(userProfileCache, jdbcTemplate, new CacheProps());
+
+        invalidator.invalidate("uuid");
+        verify(userProfileCache, times(1)).evict("uuid");
+        verify(jdbcTemplate, times(1))
+                .query(eq("select pg_notify(?, ?)"), any(RowCallbackHandler.class), eq("user_cache_invalidation"), eq("uuid"));
+    }
+
+    @Test
+    void invalidate_shouldOnlyEvictLocally_whenDisabled() {
+        var cacheProps = new CacheProps();
+        cacheProps.getInvalidation().setEnabled(false);
+        var invalidator = new UserCacheInvalidator(userProfileCache, jdbcTemplate, cacheProps);
+
+        invalidator.invalidate("uuid");
+        verify(userProfileCache, times(1)).evict("uuid");
+        verify(jdbcTemplate, times(0)).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+    }
+}
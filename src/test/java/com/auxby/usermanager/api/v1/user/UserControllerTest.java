@@ -2,6 +2,9 @@ package com.auxby.usermanager.api.v1.user;
 
 import com.auxby.usermanager.api.v1.user.model.*;
 import com.auxby.usermanager.exception.RegistrationException;
+import com.auxby.usermanager.utils.enums.CoinChangeReason;
+import com.auxby.usermanager.utils.enums.DeletionJobStage;
+import com.auxby.usermanager.utils.enums.DeletionJobStatus;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.SneakyThrows;
 import org.junit.jupiter.api.BeforeEach;
@@ -19,10 +22,14 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
 
 import javax.persistence.EntityNotFoundException;
+import java.util.Date;
+import java.util.List;
 
 import static com.auxby.usermanager.utils.TestUtils.getUrl;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.http.HttpStatus.EXPECTATION_FAILED;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
@@ -39,6 +46,12 @@ class UserControllerTest {
     private UserService userService;
     @MockBean
     private AdapterConfig adapterConfig;
+    @MockBean
+    private UserLastSeenBuffer lastSeenBuffer;
+    @MockBean
+    private AccountDeletionService accountDeletionService;
+    @MockBean
+    private CoinLedgerService coinLedgerService;
 
     @BeforeEach
     void setup() {
@@ -152,6 +165,45 @@ class UserControllerTest {
         assertEquals("user", emailArg.getValue());
     }
 
+    @Test
+    @SneakyThrows
+    @WithMockUser(username = "uuid")
+    void getDeletionStatus_shouldSucceed() {
+        when(accountDeletionService.getDeletionStatus(any()))
+                .thenReturn(new DeletionStatusResponse(DeletionJobStatus.PENDING, DeletionJobStage.KEYCLOAK, new Date(), new Date()));
+
+        mockMvc.perform(get(getUrl("deletion-status"))
+                        .with(csrf()))
+                .andExpect(status().isOk());
+        verify(accountDeletionService, times(1)).getDeletionStatus("uuid");
+    }
+
+    @Test
+    @SneakyThrows
+    @WithMockUser(username = "uuid")
+    void getCoinHistory_shouldSucceed() {
+        when(coinLedgerService.getHistory(any(), anyInt(), anyInt()))
+                .thenReturn(new CoinHistoryResponse(105, List.of(new CoinChangeResponse(5, CoinChangeReason.PURCHASE, new Date()))));
+
+        mockMvc.perform(get(getUrl("coins/history"))
+                        .param("page", "1")
+                        .with(csrf()))
+                .andExpect(status().isOk());
+        verify(coinLedgerService, times(1)).getHistory("uuid", 1, 20);
+    }
+
+    @Test
+    @SneakyThrows
+    @WithMockUser
+    void getDeletionStatus_shouldFail_whenNoDeletionRequested() {
+        when(accountDeletionService.getDeletionStatus(any()))
+                .thenThrow(new EntityNotFoundException("Test exception."));
+
+        mockMvc.perform(get(getUrl("deletion-status"))
+                        .with(csrf()))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     @SneakyThrows
     @WithMockUser
@@ -168,6 +220,33 @@ class UserControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    @SneakyThrows
+    @WithMockUser
+    void patchUser_shouldSucceed() {
+        when(userService.patchUser(any(), any()))
+                .thenReturn(new UserDetailsResponse("Doe", "Joe", "test.com", null, "0740400200", "", 0, false));
+
+        mockMvc.perform(patch(getUrl(""))
+                        .content("{\"phone\": \"0740400200\"}")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .with(csrf()))
+                .andExpect(status().isOk());
+        verify(userService, times(1)).patchUser(any(), eq(new PatchUserInfo(null, null, null, "0740400200")));
+    }
+
+    @Test
+    @SneakyThrows
+    @WithMockUser
+    void patchUser_shouldFail_whenNameIsBlank() {
+        mockMvc.perform(patch(getUrl(""))
+                        .content("{\"firstName\": \" \"}")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .with(csrf()))
+                .andExpect(status().is4xxClientError());
+        verify(userService, never()).patchUser(any(), any());
+    }
+
     @Test
     @SneakyThrows
     @WithMockUser
@@ -0,0 +1,165 @@
+package com.auxby.usermanager.api.v1.user;
+
+import com.auxby.usermanager.config.properties.LastSeenProps;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserLastSeenBufferTest {
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private TaskScheduler taskScheduler;
+    private UserLastSeenBuffer lastSeenBuffer;
+
+    @BeforeEach
+    void setup() {
+        LastSeenProps props = new LastSeenProps();
+        props.setMaxBatchSize(2);
+        lastSeenBuffer = new UserLastSeenBuffer(jdbcTemplate, props, taskScheduler);
+    }
+
+    @Test
+    void flush_shouldCoalesceTouchesPerUser() {
+        lastSeenBuffer.touch("uuid-1");
+        lastSeenBuffer.touch("uuid-1");
+        lastSeenBuffer.touch("uuid-1");
+        assertEquals(1, lastSeenBuffer.pendingCount());
+
+        lastSeenBuffer.flush();
+        ArgumentCaptor<Collection<Map.Entry<String, Long>>> batchArg = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), batchArg.capture(), eq(1), any(ParameterizedPreparedStatementSetter.class));
+        assertEquals(1, batchArg.getValue().size());
+        assertEquals(0, lastSeenBuffer.pendingCount());
+    }
+
+    @Test
+    @SneakyThrows
+    @SuppressWarnings("unchecked")
+    void flush_shouldWriteEachUsersOwnLastSeen() {
+        var statement = mock(PreparedStatement.class);
+        var written = new HashMap<String, Long>();
+        when(jdbcTemplate.batchUpdate(anyString(), any(Collection.class), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(invocation -> {
+                    Collection<Map.Entry<String, Long>> batch = invocation.getArgument(1);
+                    ParameterizedPreparedStatementSetter<Map.Entry<String, Long>> setter = invocation.getArgument(3);
+                    for (Map.Entry<String, Long> entry : batch) {
+                        setter.setValues(statement, entry);
+                        written.put(entry.getKey(), entry.getValue());
+                    }
+                    return new int[][]{};
+                });
+        lastSeenBuffer.touch("uuid-1");
+        Thread.sleep(5);
+        lastSeenBuffer.touch("uuid-2");
+
+        lastSeenBuffer.flush();
+        assertEquals(2, written.size());
+        assertNotEquals(written.get("uuid-1"), written.get("uuid-2"));
+        verify(statement).setTimestamp(1, new Timestamp(written.get("uuid-1")));
+        verify(statement).setString(2, "uuid-1");
+        verify(statement).setTimestamp(1, new Timestamp(written.get("uuid-2")));
+        verify(statement).setString(2, "uuid-2");
+    }
+
+    @Test
+    void flush_shouldSplitUsersInBatches() {
+        lastSeenBuffer.touch("uuid-1");
+        lastSeenBuffer.touch("uuid-2");
+        lastSeenBuffer.touch("uuid-3");
+
+        lastSeenBuffer.flush();
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), any(Collection.class), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+        assertEquals(0, lastSeenBuffer.pendingCount());
+    }
+
+    @Test
+    void flush_shouldKeepTouches_whenUpdateFails() {
+        when(jdbcTemplate.batchUpdate(anyString(), any(Collection.class), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new RuntimeException("Test exception."));
+        lastSeenBuffer.touch("uuid-1");
+
+        lastSeenBuffer.flush();
+        assertEquals(1, lastSeenBuffer.pendingCount());
+    }
+
+    @Test
+    void flush_shouldDoNothing_whenNoTouches() {
+        lastSeenBuffer.flush();
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void stop_shouldDrainPendingTouches() {
+        lastSeenBuffer.touch("uuid-1");
+        lastSeenBuffer.stop();
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), any(Collection.class), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+        assertEquals(0, lastSeenBuffer.pendingCount());
+    }
+
+    @Test
+    @SneakyThrows
+    @SuppressWarnings("unchecked")
+    void stop_shouldWriteLateTouch_whenFlushIsRunning() {
+        var flushing = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var written = new ConcurrentHashMap<String, Long>();
+        when(jdbcTemplate.batchUpdate(anyString(), any(Collection.class), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(invocation -> {
+                    Collection<Map.Entry<String, Long>> batch = invocation.getArgument(1);
+                    batch.forEach(entry -> written.put(entry.getKey(), entry.getValue()));
+                    flushing.countDown();
+                    release.await();
+                    return new int[][]{};
+                });
+        lastSeenBuffer.touch("uuid-1");
+        var flush = new Thread(lastSeenBuffer::flush);
+        flush.start();
+        assertTrue(flushing.await(5, TimeUnit.SECONDS));
+
+        Thread.sleep(5);
+        lastSeenBuffer.touch("uuid-1");
+        var pending = (Map<String, Long>) ReflectionTestUtils.getField(lastSeenBuffer, "pending");
+        long lateTouch = pending.get("uuid-1");
+        var stop = new Thread(lastSeenBuffer::stop);
+        stop.start();
+        var flushLock = (ReentrantLock) ReflectionTestUtils.getField(lastSeenBuffer, "flushLock");
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            while (!flushLock.hasQueuedThreads()) {
+                Thread.sleep(1);
+            }
+        });
+        release.countDown();
+        flush.join(5000);
+        stop.join(5000);
+
+        assertFalse(stop.isAlive());
+        assertEquals(lateTouch, written.get("uuid-1"));
+        assertEquals(0, lastSeenBuffer.pendingCount());
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), any(Collection.class), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+    }
+}
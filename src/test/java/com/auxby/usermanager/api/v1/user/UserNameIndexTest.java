@@ -0,0 +1,80 @@
+package com.auxby.usermanager.api.v1.user;
+
+import com.auxby.usermanager.config.properties.CacheProps;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.sql.ResultSet;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserNameIndexTest {
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    private UserNameIndex userNameIndex;
+
+    @BeforeEach
+    void setup() {
+        userNameIndex = new UserNameIndex(jdbcTemplate, taskScheduler, new CacheProps(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void mightContain_shouldAnswerPossible_beforeFirstLoad() {
+        assertTrue(userNameIndex.mightContain("unknown@gmail.com"));
+    }
+
+    @Test
+    void rebuild_shouldRuleOutUnknownNames() throws Exception {
+        mockUserNames("test@gmail.com");
+
+        userNameIndex.rebuild();
+        assertTrue(userNameIndex.mightContain("test@gmail.com"));
+        assertFalse(userNameIndex.mightContain("unknown@gmail.com"));
+    }
+
+    @Test
+    void add_shouldIncludeNewNames() throws Exception {
+        mockUserNames("test@gmail.com");
+
+        userNameIndex.rebuild();
+        userNameIndex.add("new@gmail.com");
+        assertTrue(userNameIndex.mightContain("new@gmail.com"));
+    }
+
+    @Test
+    void rebuild_shouldKeepAnsweringPossible_whenLoadFails() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class)))
+                .thenThrow(new RuntimeException("Test exception."));
+
+        userNameIndex.rebuild();
+        assertTrue(userNameIndex.mightContain("unknown@gmail.com"));
+    }
+
+    private void mockUserNames(String... userNames) throws Exception {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class)))
+                .thenReturn((long) userNames.length);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (String userName : userNames) {
+                ResultSet resultSet = mock(ResultSet.class);
+                when(resultSet.getString(1)).thenReturn(userName);
+                handler.processRow(resultSet);
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+    }
+}
@@ -3,8 +3,11 @@ package com.auxby.usermanager.api.v1.user;
 import com.auxby.usermanager.api.v1.address.model.AddressInfo;
 import com.auxby.usermanager.api.v1.auth.model.AuthInfo;
 import com.auxby.usermanager.api.v1.user.model.ChangePasswordDto;
+import com.auxby.usermanager.api.v1.user.model.PatchUserInfo;
 import com.auxby.usermanager.api.v1.user.model.UpdateUserInfo;
 import com.auxby.usermanager.api.v1.user.model.UserDetailsInfo;
+import com.auxby.usermanager.api.v1.user.model.UserIdentity;
+import com.auxby.usermanager.config.properties.CacheProps;
 import com.auxby.usermanager.entity.Address;
 import com.auxby.usermanager.entity.Contact;
 import com.auxby.usermanager.entity.UserDetails;
@@ -12,9 +15,12 @@ import com.auxby.usermanager.exception.ActionNotAllowException;
 import com.auxby.usermanager.exception.ChangePasswordException;
 import com.auxby.usermanager.exception.RegistrationException;
 import com.auxby.usermanager.utils.TestMock;
+import com.auxby.usermanager.utils.enums.CoinChangeReason;
 import com.auxby.usermanager.utils.enums.ContactType;
 import com.auxby.usermanager.utils.service.AmazonClientService;
 import com.auxby.usermanager.utils.service.KeycloakService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.SneakyThrows;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -22,6 +28,7 @@ import org.keycloak.representations.idm.UserRepresentation;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.multipart.MultipartFile;
@@ -30,12 +37,14 @@ import org.springframework.web.reactive.function.client.WebClientResponseExcepti
 import javax.persistence.EntityNotFoundException;
 import javax.ws.rs.core.Response;
 import java.io.IOException;
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -48,6 +57,20 @@ class UserServiceTest {
     private AmazonClientService awsService;
     @Mock
     private KeycloakService keycloakService;
+    @Mock
+    private UserDevicesRepository devicesRepository;
+    @Mock
+    private AccountDeletionService accountDeletionService;
+    @Spy
+    private UserProfileCache userProfileCache = new UserProfileCache(new CacheProps(), new SimpleMeterRegistry());
+    @Mock
+    private UserCacheInvalidator userCacheInvalidator;
+    @Mock
+    private UserNameIndex userNameIndex;
+    @Mock
+    private CoinLedgerService coinLedgerService;
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
 
     @Test
     void createUser_shouldSucceed() {
@@ -56,13 +79,11 @@ class UserServiceTest {
                 .thenReturn(HttpStatus.CREATED.value());
         when(keycloakService.performCreateUser(any()))
                 .thenReturn(mockResponse);
-        when(userRepository.save(any()))
+        when(coinLedgerService.saveWithOpeningBalance(any()))
                 .thenReturn(mockUser("test-uuid", false));
 
-        UserRepresentation mock = mock(UserRepresentation.class);
-        when(mock.getId()).thenReturn("test-uuid");
-        when(keycloakService.getKeycloakUser(anyString()))
-                .thenReturn(Optional.of(mock));
+        when(keycloakService.getCreatedUserId(mockResponse))
+                .thenReturn("test-uuid");
         doNothing().when(keycloakService)
                 .sendVerificationEmailLink(any());
         doNothing().when(keycloakService)
@@ -82,13 +103,11 @@ class UserServiceTest {
                 .thenReturn(HttpStatus.CREATED.value());
         when(keycloakService.performCreateUser(any()))
                 .thenReturn(mockResponse);
-        when(userRepository.save(any()))
+        when(coinLedgerService.saveWithOpeningBalance(any()))
                 .thenReturn(mockUser("test-uuid", false));
 
-        UserRepresentation mock = mock(UserRepresentation.class);
-        when(mock.getId()).thenReturn("test-uuid");
-        when(keycloakService.getKeycloakUser(anyString()))
-                .thenReturn(Optional.of(mock));
+        when(keycloakService.getCreatedUserId(mockResponse))
+                .thenReturn("test-uuid");
         doNothing().when(keycloakService)
                 .sendVerificationEmailLink(any());
         doNothing().when(keycloakService)
@@ -103,16 +122,18 @@ class UserServiceTest {
     }
 
     @Test
-    void createUser_shouldFail_whenKeycloakUserNotFound() {
+    void createUser_shouldFail_whenCreatedUserIdMissing() {
         var mockResponse = mock(Response.class);
         when(mockResponse.getStatus())
                 .thenReturn(HttpStatus.CREATED.value());
         when(keycloakService.performCreateUser(any()))
                 .thenReturn(mockResponse);
-        when(keycloakService.getKeycloakUser(anyString()))
-                .thenReturn(Optional.empty());
+        when(keycloakService.getCreatedUserId(mockResponse))
+                .thenReturn(null);
 
         assertThrows(RegistrationException.class, () -> userService.createUser(getMockUserDetails(false), false));
+        verify(keycloakService, never()).addUserRole(anyString());
+        verify(coinLedgerService, never()).saveWithOpeningBalance(any());
     }
 
     @Test
@@ -120,17 +141,16 @@ class UserServiceTest {
         var mockResponse = mock(Response.class);
         when(mockResponse.getStatus())
                 .thenReturn(HttpStatus.CREATED.value());
-        UserRepresentation mock = mock(UserRepresentation.class);
-        when(mock.getId()).thenReturn("test-uuid");
-        when(keycloakService.getKeycloakUser(anyString()))
-                .thenReturn(Optional.of(mock));
         when(keycloakService.performCreateUser(any()))
                 .thenReturn(mockResponse);
-        when(userRepository.save(any()))
+        when(keycloakService.getCreatedUserId(mockResponse))
+                .thenReturn("test-uuid");
+        when(coinLedgerService.saveWithOpeningBalance(any()))
                 .thenThrow(new RuntimeException("Test exception."));
 
         assertThrows(RegistrationException.class, () -> userService.createUser(getMockUserDetails(false), false));
-        verify(keycloakService, times(1)).deleteKeycloakUser(any());
+        verify(keycloakService, times(1)).deleteKeycloakUser("test-uuid");
+        verify(keycloakService, never()).sendVerificationEmailLink(any());
     }
 
 
@@ -148,7 +168,7 @@ class UserServiceTest {
                 .thenReturn(mockResponse);
 
         assertThrows(RegistrationException.class, () -> userService.createUser(getMockUserDetails(false), false));
-        verify(userRepository, times(0)).save(any());
+        verify(coinLedgerService, times(0)).saveWithOpeningBalance(any());
     }
 
     @Test
@@ -164,6 +184,113 @@ class UserServiceTest {
         assertEquals("Ro", result.address().country());
     }
 
+    @Test
+    void getUser_shouldServeRepeatedReadsFromCache() {
+        when(userRepository.findUserDetailsByAccountUuid(anyString()))
+                .thenReturn(Optional.of(mockUser("uuid", true)));
+
+        var first = userService.getUser("uuid");
+        var second = userService.getUser("uuid");
+        assertEquals(first, second);
+        verify(userRepository, times(1)).findUserDetailsByAccountUuid("uuid");
+    }
+
+    @Test
+    void getUser_shouldNotCacheFailedLoad() {
+        when(userRepository.findUserDetailsByAccountUuid(anyString()))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(mockUser("uuid", true)));
+
+        assertThrows(EntityNotFoundException.class, () -> userService.getUser("uuid"));
+        assertNotNull(userService.getUser("uuid"));
+        verify(userRepository, times(2)).findUserDetailsByAccountUuid("uuid");
+    }
+
+    @Test
+    void getUser_shouldNotCacheLoaderError() {
+        when(userRepository.findUserDetailsByAccountUuid(anyString()))
+                .thenThrow(new StackOverflowError("Test error."))
+                .thenReturn(Optional.of(mockUser("uuid", true)));
+
+        assertThrows(StackOverflowError.class, () -> userService.getUser("uuid"));
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> assertNotNull(userService.getUser("uuid")));
+        verify(userRepository, times(2)).findUserDetailsByAccountUuid("uuid");
+    }
+
+    @Test
+    void updateUser_shouldInvalidateCachedProfile() {
+        when(userRepository.findUserDetailsByAccountUuid(anyString()))
+                .thenReturn(Optional.of(mockUser("uuid", true)));
+
+        userService.updateUser("uuid", getMockUserUpdateDetails(true));
+        verify(userCacheInvalidator, times(1)).invalidate("uuid");
+    }
+
+    @Test
+    void updateUser_shouldSkipWrites_whenNothingChanged() {
+        var user = mockUser("uuid", true);
+        when(userRepository.findUserDetailsByAccountUuid(anyString()))
+                .thenReturn(Optional.of(user));
+
+        userService.updateUser("uuid", new UpdateUserInfo("Doe", "Joe", new AddressInfo("Suceava", "Ro"), "0755444322"));
+        verify(keycloakService, never()).performUserUpdate(any(), any());
+        verify(userCacheInvalidator, never()).invalidate(any());
+        assertEquals(2, user.getContacts().size());
+        assertEquals(1, user.getAddresses().size());
+    }
+
+    @Test
+    void updateUser_shouldUpdateChangedRowsInPlace() {
+        var user = mockUser("uuid", true);
+        when(userRepository.findUserDetailsByAccountUuid(anyString()))
+                .thenReturn(Optional.of(user));
+
+        userService.updateUser("uuid", new UpdateUserInfo("Doe", "Joe", new AddressInfo("Iasi", "Ro"), "0749599399"));
+        verify(keycloakService, never()).performUserUpdate(any(), any());
+        verify(userCacheInvalidator, times(1)).invalidate("uuid");
+        var phone = user.getContacts().stream().filter(contact -> contact.getType() == ContactType.PHONE).toList();
+        assertEquals(1, phone.size());
+        assertEquals(1, phone.get(0).getId());
+        assertEquals("0749599399", phone.get(0).getValue());
+        var address = user.getAddresses().iterator().next();
+        assertEquals(1, address.getId());
+        assertEquals("Iasi", address.getCity());
+    }
+
+    @Test
+    void patchUser_shouldOnlyUpdateProvidedFields() {
+        var user = mockUser("uuid", true);
+        when(userRepository.findUserDetailsByAccountUuid(anyString()))
+                .thenReturn(Optional.of(user));
+
+        var result = userService.patchUser("uuid", new PatchUserInfo(null, null, null, "0749599399"));
+        verify(keycloakService, never()).performUserUpdate(any(), any());
+        verify(userCacheInvalidator, times(1)).invalidate("uuid");
+        assertEquals("0749599399", result.phone());
+        assertEquals("Suceava", result.address().city());
+        assertEquals("Joe", user.getFirstName());
+    }
+
+    @Test
+    void patchUser_shouldUpdateKeycloak_whenNameChanged() {
+        when(userRepository.findUserDetailsByAccountUuid(anyString()))
+                .thenReturn(Optional.of(mockUser("uuid", true)));
+
+        userService.patchUser("uuid", new PatchUserInfo(null, "John", null, null));
+        ArgumentCaptor<UserRepresentation> userRepresentationArg = ArgumentCaptor.forClass(UserRepresentation.class);
+        verify(keycloakService, times(1)).performUserUpdate(eq("uuid"), userRepresentationArg.capture());
+        assertEquals("John", userRepresentationArg.getValue().getFirstName());
+        assertEquals("Doe", userRepresentationArg.getValue().getLastName());
+    }
+
+    @Test
+    void addUserResources_shouldCreditCoinsAndInvalidateCachedProfile() {
+        userService.addUserResources(5, "uuid", "payment:1");
+        verify(coinLedgerService, times(1)).credit("uuid", 5, CoinChangeReason.PURCHASE, "payment:1");
+        verify(userCacheInvalidator, times(1)).invalidate("uuid");
+        verifyNoInteractions(userRepository);
+    }
+
     @Test
     void getUser_shouldReturnUserDetails_withNoContactDetails() {
         when(userRepository.findUserDetailsByAccountUuid(anyString()))
@@ -178,13 +305,16 @@ class UserServiceTest {
     @Test
     void deleteUser_shouldSucceed() {
         var uuid = UUID.randomUUID().toString();
+        var mockUser = mockUser(uuid, true);
         when(userRepository.findUserDetailsByAccountUuid(anyString()))
-                .thenReturn(Optional.of(mockUser(uuid, true)));
+                .thenReturn(Optional.of(mockUser));
 
-        userService.deleteUser("test");
-        verify(keycloakService, times(1))
+        assertTrue(userService.deleteUser("test"));
+        verify(accountDeletionService, times(1))
+                .requestDeletion(mockUser);
+        verify(keycloakService, times(0))
                 .deleteKeycloakUser(any());
-        verify(userRepository, times(1))
+        verify(userRepository, times(0))
                 .deleteById(any());
     }
 
@@ -205,35 +335,29 @@ class UserServiceTest {
     }
 
     @Test
-    void sendResetPasswordLink_shouldSucceed() {
+    void findAccountUuid_shouldReturnAccountUuid() {
         var uuid = UUID.randomUUID().toString();
-        when(userRepository.findUserDetailsByUserName(anyString()))
-                .thenReturn(Optional.of(mockUser(uuid, true)));
+        when(userRepository.findAccountUuidByUserName(anyString()))
+                .thenReturn(Optional.of(uuid));
 
-
-        userService.sendResetPasswordLink("test@gmail.com");
-        ArgumentCaptor<String> uuidArg = ArgumentCaptor.forClass(String.class);
-        verify(keycloakService, times(1))
-                .sendResetPasswordLink(uuidArg.capture());
-        assertEquals(uuid, uuidArg.getValue());
+        assertEquals(uuid, userService.findAccountUuid("test@gmail.com"));
+        verify(userRepository, never()).findUserDetailsByAccountUuid(anyString());
     }
 
     @Test
-    void findUser_shouldReturnUserDetails() {
-        var uuid = UUID.randomUUID().toString();
-        when(userRepository.findUserDetailsByUserName(anyString()))
-                .thenReturn(Optional.of(mockUser(uuid, true)));
+    void findAccountUuid_shouldThrowException_whenUserNotFound() {
+        when(userRepository.findAccountUuidByUserName(anyString()))
+                .thenReturn(Optional.empty());
 
-        var result = userService.findUser("test@gmail.com");
-        assertNotNull(result);
+        assertThrows(EntityNotFoundException.class, () -> userService.findAccountUuid("test@gmail.com"));
     }
 
     @Test
-    void findUser_shouldThrowException_whenUserNotFound() {
-        when(userRepository.findUserDetailsByUserName(anyString()))
+    void isGoogleAccount_shouldReturnFalse_whenUserNotFound() {
+        when(userRepository.findIsGoogleAccountByUserName(anyString()))
                 .thenReturn(Optional.empty());
 
-        assertThrows(EntityNotFoundException.class, () -> userService.findUser("test@gmail.com"));
+        assertFalse(userService.isGoogleAccount("test@gmail.com"));
     }
 
     @Test
@@ -282,16 +406,27 @@ class UserServiceTest {
 
     @Test
     void checkUserExists() {
-        when(userRepository.findUserDetailsByUserName(anyString()))
-                .thenReturn(Optional.empty());
+        when(userNameIndex.mightContain(anyString()))
+                .thenReturn(true);
+        when(userRepository.existsByUserName(anyString()))
+                .thenReturn(false);
 
         Boolean result = userService.checkUserExists("test");
         assertFalse(result);
         ArgumentCaptor<String> userNameArg = ArgumentCaptor.forClass(String.class);
-        verify(userRepository, times(1)).findUserDetailsByUserName(userNameArg.capture());
+        verify(userRepository, times(1)).existsByUserName(userNameArg.capture());
         assertEquals("test", userNameArg.getValue());
     }
 
+    @Test
+    void checkUserExists_shouldSkipDatabase_whenIndexRulesOutName() {
+        when(userNameIndex.mightContain(anyString()))
+                .thenReturn(false);
+
+        assertFalse(userService.checkUserExists("test"));
+        verifyNoInteractions(userRepository);
+    }
+
     @Test
     @SneakyThrows
     void updateUserAvatar() {
@@ -316,8 +451,8 @@ class UserServiceTest {
 
     @Test
     void changeUserPassword() {
-        when(userRepository.findUserDetailsByAccountUuid(anyString()))
-                .thenReturn(Optional.of(mockUser("test-uuid", true)));
+        when(userRepository.findIdentityByAccountUuid(anyString()))
+                .thenReturn(Optional.of(mockIdentity("test-uuid")));
 
         boolean result = userService.changePassword(new ChangePasswordDto("test", "test.1234"), "test-uuid");
         assertTrue(result);
@@ -332,8 +467,8 @@ class UserServiceTest {
 
     @Test
     void changeUserPassword_shouldFail_whenKeycloakLoginFails() {
-        when(userRepository.findUserDetailsByAccountUuid(anyString()))
-                .thenReturn(Optional.of(mockUser("test-uuid", true)));
+        when(userRepository.findIdentityByAccountUuid(anyString()))
+                .thenReturn(Optional.of(mockIdentity("test-uuid")));
         when(keycloakService.performLogin(any()))
                 .thenThrow(mock(WebClientResponseException.class));
 
@@ -342,6 +477,10 @@ class UserServiceTest {
                 () -> userService.changePassword(request, "test-uuid"));
     }
 
+    private UserIdentity mockIdentity(String uuid) {
+        return new UserIdentity(1, uuid, "test@gmail.com", "Joe", "Doe");
+    }
+
     private UserDetailsInfo getMockUserDetails(boolean setAddress) {
         if (setAddress) {
             return new UserDetailsInfo("Joe", "Doe", "testPass",
@@ -392,9 +531,29 @@ class UserServiceTest {
         return user;
     }
 
+    @Test
+    void addDeviceTokens_shouldUpsertDistinctTokens() {
+        when(userRepository.findIdByAccountUuid("uuid"))
+                .thenReturn(Optional.of(1));
+
+        assertTrue(userService.addDeviceTokens("uuid", List.of("token-1", "token-2", "token-1")));
+        verify(devicesRepository, times(1)).insertIfAbsent(1, "token-1");
+        verify(devicesRepository, times(1)).insertIfAbsent(1, "token-2");
+        verify(userRepository, never()).findUserDetailsByAccountUuid(anyString());
+    }
+
+    @Test
+    void addDeviceToken_shouldFail_whenUserNotFound() {
+        when(userRepository.findIdByAccountUuid("uuid"))
+                .thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class, () -> userService.addDeviceToken("uuid", "token"));
+        verifyNoInteractions(devicesRepository);
+    }
+
     private void assertSaveIsPerformed(UserDetailsInfo request, boolean hasAddress) {
         ArgumentCaptor<UserDetails> saveUserArg = ArgumentCaptor.forClass(UserDetails.class);
-        verify(userRepository, times(1)).save(saveUserArg.capture());
+        verify(coinLedgerService, times(1)).saveWithOpeningBalance(saveUserArg.capture());
         var savedUserPhone = saveUserArg.getValue().getContacts()
                 .stream()
                 .filter(c -> c.getType().equals(ContactType.PHONE))
@@ -432,9 +591,8 @@ class UserServiceTest {
         assertEquals(request.lastName(), userRepresentationArg.getValue().getLastName());
         assertEquals(request.firstName(), userRepresentationArg.getValue().getFirstName());
 
-        ArgumentCaptor<String> getUserArg = ArgumentCaptor.forClass(String.class);
-        verify(keycloakService, times(1)).getKeycloakUser(getUserArg.capture());
-        assertEquals(request.email(), getUserArg.getValue());
+        verify(keycloakService, never()).getKeycloakUser(anyString());
+        assertEquals(1, meterRegistry.get("user.registration.stage").tag("stage", "db-save").timer().count());
 
         ArgumentCaptor<String> addUserRoleArg = ArgumentCaptor.forClass(String.class);
         verify(keycloakService, times(1)).addUserRole(addUserRoleArg.capture());
@@ -0,0 +1,157 @@
+package com.auxby.usermanager.config;
+
+import com.auxby.usermanager.config.properties.CacheProps;
+import com.auxby.usermanager.config.properties.KeycloakProps;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.SneakyThrows;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.keycloak.admin.client.Keycloak;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeycloakClientTest {
+    private static final String TOKEN = "{\"access_token\":\"token\",\"expires_in\":300,\"token_type\":\"bearer\"}";
+    private final AtomicInteger tokenRequests = new AtomicInteger();
+    private volatile int tokenStatus = 200;
+    private HttpServer server;
+    private KeycloakProps keycloakProps;
+    private SimpleMeterRegistry meterRegistry;
+    private KeycloakClient keycloakClient;
+
+    @BeforeEach
+    @SneakyThrows
+    void setup() {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/realms/test/protocol/openid-connect/token", exchange -> {
+            tokenRequests.incrementAndGet();
+            byte[] body = TOKEN.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(tokenStatus, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+
+        keycloakProps = new KeycloakProps();
+        keycloakProps.setUrl("http://127.0.0.1:" + server.getAddress().getPort());
+        keycloakProps.setRealm("test");
+        keycloakProps.setClientId("client");
+        keycloakProps.setClientSecret("secret");
+        keycloakProps.getPool().setMaxTotal(7);
+        keycloakProps.getPool().setMaxPerRoute(3);
+        meterRegistry = new SimpleMeterRegistry();
+        keycloakClient = new KeycloakClient(keycloakProps, new CacheProps(), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.invokeMethod(keycloakClient, "close");
+        server.stop(0);
+    }
+
+    @Test
+    void init_shouldCreateClientOnce() {
+        ReflectionTestUtils.invokeMethod(keycloakClient, "init");
+
+        var keycloak = keycloak();
+        assertSame(keycloak, keycloak());
+        assertFalse(keycloak.isClosed());
+        assertEquals(1, tokenRequests.get());
+    }
+
+    @Test
+    void getKeycloak_shouldRecreateClient_whenClosed() {
+        ReflectionTestUtils.invokeMethod(keycloakClient, "init");
+        var closed = keycloak();
+        closed.close();
+
+        var reopened = keycloak();
+        assertNotSame(closed, reopened);
+        assertFalse(reopened.isClosed());
+        assertSame(reopened, keycloak());
+        assertEquals(2, tokenRequests.get());
+    }
+
+    @Test
+    @SneakyThrows
+    void getKeycloak_shouldRecreateClientOnce_whenCalledConcurrently() {
+        ReflectionTestUtils.invokeMethod(keycloakClient, "init");
+        keycloak().close();
+
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        Set<Keycloak> clients = ConcurrentHashMap.newKeySet();
+        try {
+            for (int i = 0; i < threads; i++) {
+                executor.submit(() -> {
+                    start.await();
+                    return clients.add(keycloak());
+                });
+            }
+            start.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, clients.size());
+        assertEquals(2, tokenRequests.get());
+    }
+
+    @Test
+    void getKeycloak_shouldRetry_whenTokenRequestFails() {
+        tokenStatus = 401;
+        assertThrows(RuntimeException.class, this::keycloak);
+        assertNull(ReflectionTestUtils.getField(keycloakClient, "keycloak"));
+
+        tokenStatus = 200;
+        assertFalse(keycloak().isClosed());
+        assertEquals(2, tokenRequests.get());
+    }
+
+    @Test
+    void init_shouldApplyPoolSettings() {
+        ReflectionTestUtils.invokeMethod(keycloakClient, "init");
+
+        var connectionManager = (PoolingHttpClientConnectionManager) ReflectionTestUtils.getField(keycloakClient, "connectionManager");
+        assertNotNull(connectionManager);
+        assertEquals(7, connectionManager.getMaxTotal());
+        assertEquals(3, connectionManager.getDefaultMaxPerRoute());
+        assertEquals(7, meterRegistry.get("keycloak.admin.pool.connections").tag("state", "max").gauge().value());
+        assertEquals(0, meterRegistry.get("keycloak.admin.pool.connections").tag("state", "leased").gauge().value());
+    }
+
+    @Test
+    void requestConfig_shouldUsePoolTimeouts() {
+        var pool = new KeycloakProps.Pool();
+        pool.setAcquireTimeout(Duration.ofMillis(100));
+        pool.setConnectTimeout(Duration.ofMillis(200));
+        pool.setReadTimeout(Duration.ofMillis(300));
+
+        var result = KeycloakClient.requestConfig(pool);
+        assertEquals(100, result.getConnectionRequestTimeout());
+        assertEquals(200, result.getConnectTimeout());
+        assertEquals(300, result.getSocketTimeout());
+    }
+
+    private Keycloak keycloak() {
+        return ReflectionTestUtils.invokeMethod(keycloakClient, "getKeycloak");
+    }
+}
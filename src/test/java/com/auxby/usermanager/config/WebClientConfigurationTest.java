@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.netty.resources.ConnectionProvider;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.when;
@@ -26,7 +27,20 @@ class WebClientConfigurationTest {
     void webClient() {
         when(keycloakProps.getUrl())
                 .thenReturn("Test");
-        var result = webClientConfiguration.webClient();
+        when(keycloakProps.getPool())
+                .thenReturn(new KeycloakProps.Pool());
+        var result = webClientConfiguration.webClient(ConnectionProvider.newConnection());
         assertNotNull(result);
     }
+
+    @Test
+    void webClientConnectionProvider() {
+        when(keycloakProps.getPool())
+                .thenReturn(new KeycloakProps.Pool());
+        when(keycloakProps.getReactivePool())
+                .thenReturn(new KeycloakProps.ReactivePool());
+        var result = webClientConfiguration.webClientConnectionProvider();
+        assertEquals(100, result.maxConnections());
+        result.dispose();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,50 @@
+package com.auxby.usermanager.utils;
+
+import com.stripe.Stripe;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Instant;
+import java.util.HexFormat;
+
+// Builds stripe webhook payloads signed the way stripe signs them, run main() to get a curl-ready request.
+public class StripeWebhookSigner {
+    public static String paymentIntentSucceeded(String eventId, String paymentIntentId) {
+        return event(eventId, "payment_intent.succeeded", paymentIntentId);
+    }
+
+    public static String event(String eventId, String type, String paymentIntentId) {
+        return """
+                {"id":"%s","object":"event","api_version":"%s","created":%d,"type":"%s",\
+                "data":{"object":{"id":"%s","object":"payment_intent","status":"succeeded"}}}"""
+                .formatted(eventId, Stripe.API_VERSION, Instant.now().getEpochSecond(), type, paymentIntentId);
+    }
+
+    public static String signature(String payload, String secret) {
+        return signature(payload, secret, Instant.now().getEpochSecond());
+    }
+
+    public static String signature(String payload, String secret, long timestamp) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            byte[] digest = mac.doFinal((timestamp + "." + payload).getBytes(StandardCharsets.UTF_8));
+            return "t=" + timestamp + ",v1=" + HexFormat.of().formatHex(digest);
+        } catch (GeneralSecurityException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.out.println("usage: StripeWebhookSigner <webhook-secret> <payment-intent-id> [event-id]");
+            return;
+        }
+        String eventId = args.length > 2 ? args[2] : "evt_local_" + System.currentTimeMillis();
+        String payload = paymentIntentSucceeded(eventId, args[1]);
+        System.out.printf("curl -X POST http://localhost:8080/api/v1/user/payment/webhook \\%n" +
+                "  -H 'Content-Type: application/json' \\%n  -H 'Stripe-Signature: %s' \\%n  -d '%s'%n", signature(payload, args[0]), payload);
+    }
+}
@@ -0,0 +1,54 @@
+package com.auxby.usermanager.utils;
+
+import com.auxby.usermanager.config.properties.VirtualThreadProps;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class VirtualThreadsTest {
+
+    @Test
+    void threadFactory_shouldUsePlatformThreads_whenDisabled() {
+        var virtualThreads = new VirtualThreads(new VirtualThreadProps());
+
+        assertFalse(virtualThreads.isEnabled());
+        Thread thread = virtualThreads.threadFactory("test-").newThread(() -> {
+        });
+        assertTrue(thread.getName().startsWith("test-"));
+    }
+
+    @Test
+    void virtualThreads_shouldStayDisabled_beforeJava21() {
+        assumeTrue(Runtime.version().feature() < 21);
+
+        assertFalse(new VirtualThreads(enabledProps()).isEnabled());
+    }
+
+    @Test
+    @SneakyThrows
+    void newThreadPerTaskExecutor_shouldRunOnVirtualThreads() {
+        assumeTrue(Runtime.version().feature() >= 21);
+        var virtualThreads = new VirtualThreads(enabledProps());
+
+        assertTrue(virtualThreads.isEnabled());
+        var executor = virtualThreads.newThreadPerTaskExecutor("test-");
+        try {
+            var name = CompletableFuture.supplyAsync(() -> Thread.currentThread().toString(), executor)
+                    .get(5, TimeUnit.SECONDS);
+            assertTrue(name.startsWith("VirtualThread"));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private VirtualThreadProps enabledProps() {
+        var props = new VirtualThreadProps();
+        props.setEnabled(true);
+        return props;
+    }
+}
@@ -0,0 +1,66 @@
+package com.auxby.usermanager.utils.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+
+import static com.auxby.usermanager.utils.metrics.DependencyMetrics.KEYCLOAK;
+import static com.auxby.usermanager.utils.metrics.DependencyMetrics.S3;
+import static org.junit.jupiter.api.Assertions.*;
+
+class DependencyMetricsTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final DependencyMetrics dependencyMetrics = new DependencyMetrics(meterRegistry);
+
+    @Test
+    void record_shouldTimeSuccessfulCall() {
+        var result = dependencyMetrics.record(S3, "put", () -> "done");
+
+        assertEquals("done", result);
+        assertEquals(1, meterRegistry.get("dependency.calls")
+                .tags("dependency", S3, "operation", "put", "outcome", "success")
+                .timer()
+                .count());
+    }
+
+    @Test
+    void record_shouldCountErrorAndRethrow() {
+        assertThrows(IOException.class, () -> dependencyMetrics.run(S3, "delete", () -> {
+            throw new IOException("Test exception.");
+        }));
+
+        assertEquals(1, meterRegistry.get("dependency.calls")
+                .tags("dependency", S3, "operation", "delete", "outcome", "error")
+                .timer()
+                .count());
+        assertEquals(1, meterRegistry.get("dependency.errors")
+                .tags("dependency", S3, "operation", "delete", "exception", "IOException")
+                .counter()
+                .count());
+    }
+
+    @Test
+    void recordAsync_shouldTimeOnSubscription() {
+        var mono = dependencyMetrics.recordAsync(KEYCLOAK, "token-grant", Mono.just("token"));
+        assertTrue(meterRegistry.find("dependency.calls").timers().isEmpty());
+
+        assertEquals("token", mono.block());
+        assertEquals(1, meterRegistry.get("dependency.calls")
+                .tags("dependency", KEYCLOAK, "operation", "token-grant", "outcome", "success")
+                .timer()
+                .count());
+    }
+
+    @Test
+    void recordAsync_shouldCountError() {
+        var mono = dependencyMetrics.recordAsync(KEYCLOAK, "token-grant", Mono.error(new IllegalStateException()));
+
+        assertThrows(IllegalStateException.class, mono::block);
+        assertEquals(1, meterRegistry.get("dependency.errors")
+                .tags("dependency", KEYCLOAK, "operation", "token-grant")
+                .counter()
+                .count());
+    }
+}
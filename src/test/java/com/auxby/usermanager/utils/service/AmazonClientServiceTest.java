@@ -1,28 +1,49 @@
 package com.auxby.usermanager.utils.service;
 
+import com.amazonaws.AmazonServiceException;
 import com.amazonaws.services.s3.AmazonS3;
-import com.amazonaws.services.s3.model.PutObjectResult;
+import com.amazonaws.services.s3.model.*;
+import com.auxby.usermanager.utils.metrics.DependencyMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executor;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class AmazonClientServiceTest {
+    @Spy
+    private DependencyMetrics dependencyMetrics = new DependencyMetrics(new SimpleMeterRegistry());
     @InjectMocks
     private AmazonClientService amazonClientService;
     @Mock
     private AmazonS3 amazonS3;
 
+    @BeforeEach
+    void setup() {
+        ReflectionTestUtils.setField(amazonClientService, "maxInFlightBytes", 10);
+        ReflectionTestUtils.setField(amazonClientService, "acquireTimeout", Duration.ofMillis(10));
+        ReflectionTestUtils.setField(amazonClientService, "s3PurgeExecutor", (Executor) Runnable::run);
+        amazonClientService.initUploadBudget();
+    }
+
     @Test
     @SneakyThrows
     void uploadAvatar() {
@@ -32,5 +53,84 @@ class AmazonClientServiceTest {
         var mockFile = new MockMultipartFile("test", "testFile", MediaType.MULTIPART_FORM_DATA.getType(), "Test".getBytes());
         var result = amazonClientService.uploadAvatar(mockFile, "test-uuid");
         assertNotNull(result);
+        ArgumentCaptor<PutObjectRequest> requestArg = ArgumentCaptor.forClass(PutObjectRequest.class);
+        verify(amazonS3, times(1)).putObject(requestArg.capture());
+        assertEquals("avatar-test-uuid", requestArg.getValue().getKey());
+        assertNull(requestArg.getValue().getFile());
+        assertEquals(4, requestArg.getValue().getMetadata().getContentLength());
+    }
+
+    @Test
+    @SneakyThrows
+    void uploadAvatar_shouldReleaseBudget_whenUploadFails() {
+        when(amazonS3.putObject(any()))
+                .thenThrow(new AmazonServiceException("Test exception."))
+                .thenReturn(mock(PutObjectResult.class));
+
+        var mockFile = new MockMultipartFile("test", "testFile", MediaType.MULTIPART_FORM_DATA.getType(), "TestTest".getBytes());
+        assertThrows(AmazonServiceException.class, () -> amazonClientService.uploadAvatar(mockFile, "test-uuid"));
+        assertNotNull(amazonClientService.uploadAvatar(mockFile, "test-uuid"));
+    }
+
+    @Test
+    void uploadAvatar_shouldFail_whenAvatarExceedsBudget() {
+        var mockFile = new MockMultipartFile("test", "testFile", MediaType.MULTIPART_FORM_DATA.getType(), "Test-avatar-too-big".getBytes());
+        assertThrows(IOException.class, () -> amazonClientService.uploadAvatar(mockFile, "test-uuid"));
+        verifyNoInteractions(amazonS3);
+    }
+
+    @Test
+    void purgeUserResources_shouldDeleteAllPages() {
+        var firstPage = mockListing(List.of(mockSummary("uuid/1/a.png", 10), mockSummary("uuid/1/b.png", 20)), true);
+        var secondPage = mockListing(List.of(mockSummary("uuid/2/c.png", 30)), false);
+        when(amazonS3.listObjectsV2(any(ListObjectsV2Request.class)))
+                .thenReturn(firstPage, secondPage);
+        when(amazonS3.deleteObjects(any()))
+                .thenAnswer(invocation -> mockDeleteResult(invocation.getArgument(0)));
+
+        var result = amazonClientService.purgeUserResources("uuid");
+        assertEquals(3, result.objects());
+        assertEquals(60, result.bytes());
+        ArgumentCaptor<ListObjectsV2Request> listArg = ArgumentCaptor.forClass(ListObjectsV2Request.class);
+        verify(amazonS3, times(2)).listObjectsV2(listArg.capture());
+        assertEquals("uuid/", listArg.getValue().getPrefix());
+        verify(amazonS3, times(2)).deleteObjects(any());
+    }
+
+    @Test
+    void purgeUserResources_shouldDoNothing_whenNoResources() {
+        when(amazonS3.listObjectsV2(any(ListObjectsV2Request.class)))
+                .thenReturn(mockListing(List.of(), false));
+
+        var result = amazonClientService.purgeUserResources("uuid");
+        assertEquals(0, result.objects());
+        verify(amazonS3, times(0)).deleteObjects(any());
+    }
+
+    private ListObjectsV2Result mockListing(List<S3ObjectSummary> summaries, boolean truncated) {
+        var listing = new ListObjectsV2Result();
+        listing.getObjectSummaries().addAll(summaries);
+        listing.setTruncated(truncated);
+        listing.setNextContinuationToken(truncated ? "next" : null);
+        return listing;
+    }
+
+    private S3ObjectSummary mockSummary(String key, long size) {
+        var summary = new S3ObjectSummary();
+        summary.setKey(key);
+        summary.setSize(size);
+        return summary;
+    }
+
+    private DeleteObjectsResult mockDeleteResult(DeleteObjectsRequest request) {
+        var deleted = request.getKeys()
+                .stream()
+                .map(key -> {
+                    var deletedObject = new DeleteObjectsResult.DeletedObject();
+                    deletedObject.setKey(key.getKey());
+                    return deletedObject;
+                })
+                .toList();
+        return new DeleteObjectsResult(deleted);
     }
-}
\ No newline at end of file
+}
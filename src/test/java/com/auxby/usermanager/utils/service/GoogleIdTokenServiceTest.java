@@ -0,0 +1,137 @@
+package com.auxby.usermanager.utils.service;
+
+import com.auxby.usermanager.config.properties.GoogleAuthProps;
+import com.auxby.usermanager.utils.metrics.DependencyMetrics;
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
+import com.google.api.client.googleapis.auth.oauth2.GooglePublicKeysManager;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.client.json.webtoken.JsonWebSignature;
+import com.google.api.client.http.LowLevelHttpRequest;
+import com.google.api.client.testing.http.MockHttpTransport;
+import com.google.api.client.testing.http.MockLowLevelHttpRequest;
+import com.google.api.client.testing.http.MockLowLevelHttpResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.SneakyThrows;
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateConverter;
+import org.bouncycastle.cert.jcajce.JcaX509v3CertificateBuilder;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.math.BigInteger;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.cert.X509Certificate;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class GoogleIdTokenServiceTest {
+    private static final String KEY_ID = "test-key";
+    private static final String AUDIENCE = "test-client";
+
+    private final AtomicInteger certRequests = new AtomicInteger();
+    private KeyPair keyPair;
+    private GoogleIdTokenService googleIdTokenService;
+
+    @BeforeEach
+    @SneakyThrows
+    void setup() {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        keyPair = generator.generateKeyPair();
+        String certsJson = String.format("{\"%s\": \"%s\"}", KEY_ID, toPem(selfSignedCertificate(keyPair)));
+
+        var transport = new MockHttpTransport() {
+            @Override
+            public LowLevelHttpRequest buildRequest(String method, String url) {
+                certRequests.incrementAndGet();
+                return new MockLowLevelHttpRequest(url)
+                        .setResponse(new MockLowLevelHttpResponse()
+                                .setContentType("application/json")
+                                .setContent(certsJson)
+                                .addHeader("Cache-Control", "public, max-age=3600"));
+            }
+        };
+        var keysManager = new GooglePublicKeysManager.Builder(transport, GsonFactory.getDefaultInstance())
+                .setPublicCertsEncodedUrl("http://localhost/certs")
+                .build();
+        var verifier = new GoogleIdTokenVerifier.Builder(keysManager)
+                .setAudience(List.of(AUDIENCE))
+                .build();
+        googleIdTokenService = new GoogleIdTokenService(verifier, new GoogleAuthProps(), mock(TaskScheduler.class),
+                new DependencyMetrics(new SimpleMeterRegistry()));
+    }
+
+    @Test
+    @SneakyThrows
+    void verify_shouldReturnPayload_whenTokenIsSignedByKnownKey() {
+        var result = googleIdTokenService.verify(signToken(AUDIENCE));
+        assertTrue(result.isPresent());
+        assertEquals("joe@gmail.com", result.get().getEmail());
+    }
+
+    @Test
+    @SneakyThrows
+    void verify_shouldReuseCachedKeys() {
+        googleIdTokenService.verify(signToken(AUDIENCE));
+        googleIdTokenService.verify(signToken(AUDIENCE));
+        googleIdTokenService.verify(signToken(AUDIENCE));
+        assertEquals(1, certRequests.get());
+    }
+
+    @Test
+    @SneakyThrows
+    void verify_shouldReturnEmpty_whenAudienceDoesNotMatch() {
+        var result = googleIdTokenService.verify(signToken("other-client"));
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void refreshKeysIfExpiring_shouldLoadKeys_whenNotLoaded() {
+        googleIdTokenService.refreshKeysIfExpiring();
+        assertEquals(1, certRequests.get());
+        googleIdTokenService.refreshKeysIfExpiring();
+        assertEquals(1, certRequests.get());
+    }
+
+    @SneakyThrows
+    private String signToken(String audience) {
+        var header = new JsonWebSignature.Header()
+                .setAlgorithm("RS256")
+                .setKeyId(KEY_ID);
+        long now = System.currentTimeMillis() / 1000;
+        var payload = new GoogleIdToken.Payload()
+                .setIssuer("https://accounts.google.com")
+                .setAudience(audience)
+                .setSubject("1234567890")
+                .setEmail("joe@gmail.com")
+                .setIssuedAtTimeSeconds(now)
+                .setExpirationTimeSeconds(now + 600);
+        return JsonWebSignature.signUsingRsaSha256(keyPair.getPrivate(), GsonFactory.getDefaultInstance(), header, payload);
+    }
+
+    @SneakyThrows
+    private static X509Certificate selfSignedCertificate(KeyPair keyPair) {
+        var name = new X500Name("CN=test");
+        var now = new Date();
+        var builder = new JcaX509v3CertificateBuilder(name, BigInteger.ONE, now,
+                new Date(now.getTime() + 3_600_000), name, keyPair.getPublic());
+        var signer = new JcaContentSignerBuilder("SHA256withRSA").build(keyPair.getPrivate());
+        return new JcaX509CertificateConverter().getCertificate(builder.build(signer));
+    }
+
+    @SneakyThrows
+    private static String toPem(X509Certificate certificate) {
+        return "-----BEGIN CERTIFICATE-----\\n"
+                + Base64.getEncoder().encodeToString(certificate.getEncoded())
+                + "\\n-----END CERTIFICATE-----\\n";
+    }
+}
@@ -5,6 +5,8 @@ import com.auxby.usermanager.api.v1.auth.model.KeycloakAuthResponse;
 import com.auxby.usermanager.config.KeycloakClient;
 import com.auxby.usermanager.config.properties.KeycloakProps;
 import com.auxby.usermanager.utils.TestMock;
+import com.auxby.usermanager.utils.metrics.DependencyMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.keycloak.admin.client.resource.RoleMappingResource;
@@ -15,10 +17,18 @@ import org.keycloak.representations.idm.UserRepresentation;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.WebClient;
-import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -33,6 +43,8 @@ class KeycloakServiceTest {
     private KeycloakProps keycloakProps;
     @Mock
     private KeycloakClient keycloakClient;
+    @Spy
+    private DependencyMetrics dependencyMetrics = new DependencyMetrics(new SimpleMeterRegistry());
     @InjectMocks
     private KeycloakService keycloakService;
 
@@ -47,6 +59,17 @@ class KeycloakServiceTest {
         assertEquals("refresh_token", response.refresh_token());
     }
 
+    @Test
+    void performLoginAsync() {
+        setupKeycloakPropsMock();
+        setupWebClientMock();
+
+        var response = keycloakService.performLoginAsync(new AuthInfo("test@email.com", "testPass"))
+                .block();
+        assertNotNull(response);
+        assertEquals("access_token", response.access_token());
+    }
+
     @Test
     void getKeycloakUser() {
         var usersResourcesMock = mock(UsersResource.class);
@@ -132,22 +155,29 @@ class KeycloakServiceTest {
     }
 
     @Test
-    void sendResetPasswordLink() {
+    void sendResetPasswordLinkAsync() {
         var uuid = UUID.randomUUID().toString();
+        var requests = new ArrayList<ClientRequest>();
+        var reactiveService = reactiveKeycloakService(requests, "");
 
-        var mockUserResource = mock(UserResource.class);
-        var mockRealmUserResources = mock(UsersResource.class);
-        when(keycloakClient.getKeycloakRealmUsersResources())
-                .thenReturn(mockRealmUserResources);
-        when(mockRealmUserResources.get(uuid))
-                .thenReturn(mockUserResource);
+        reactiveService.sendResetPasswordLinkAsync(uuid).block();
+        var request = requests.get(1);
+        assertEquals(HttpMethod.PUT, request.method());
+        assertEquals("/admin/realms/test/users/" + uuid + "/execute-actions-email", request.url().getPath());
+        assertEquals(MediaType.APPLICATION_JSON, request.headers().getContentType());
+    }
+
+    @Test
+    void sendVerificationEmailLinkAsync() {
+        var uuid = UUID.randomUUID().toString();
+        var requests = new ArrayList<ClientRequest>();
+        var reactiveService = reactiveKeycloakService(requests, "");
 
-        keycloakService.sendResetPasswordLink(uuid);
-        ArgumentCaptor<List<String>> actionsArg = ArgumentCaptor.forClass(List.class);
-        verify(mockUserResource, times(1))
-                .executeActionsEmail(actionsArg.capture());
-        assertEquals(1, actionsArg.getValue().size());
-        assertEquals("UPDATE_PASSWORD", actionsArg.getValue().get(0));
+        reactiveService.sendVerificationEmailLinkAsync(uuid).block();
+        var request = requests.get(1);
+        assertEquals(HttpMethod.PUT, request.method());
+        assertEquals("/admin/realms/test/users/" + uuid + "/send-verify-email", request.url().getPath());
+        assertEquals("Bearer service-token", request.headers().getFirst(HttpHeaders.AUTHORIZATION));
     }
 
     @Test
@@ -162,20 +192,54 @@ class KeycloakServiceTest {
     }
 
     @Test
-    void getUserRepresentation() {
+    void getUserRepresentationAsync() {
         var uuid = UUID.randomUUID().toString();
+        var requests = new ArrayList<ClientRequest>();
+        var reactiveService = reactiveKeycloakService(requests, "{\"id\":\"" + uuid + "\",\"emailVerified\":true}");
 
-        var mockUserResource = mock(UserResource.class);
-        var mockRealmUserResources = mock(UsersResource.class);
-        when(keycloakClient.getKeycloakRealmUsersResources())
-                .thenReturn(mockRealmUserResources);
-        when(mockRealmUserResources.get(uuid))
-                .thenReturn(mockUserResource);
-        when(mockUserResource.toRepresentation())
-                .thenReturn(mock(UserRepresentation.class));
-
-        var result = keycloakService.getUserRepresentation(uuid);
+        var result = reactiveService.getUserRepresentationAsync(uuid).block();
         assertNotNull(result);
+        assertTrue(result.isEmailVerified());
+        assertEquals(HttpMethod.POST, requests.get(0).method());
+        assertEquals("http://test/auth", requests.get(0).url().toString());
+        assertEquals("/admin/realms/test/users/" + uuid, requests.get(1).url().getPath());
+        assertEquals("Bearer service-token", requests.get(1).headers().getFirst(HttpHeaders.AUTHORIZATION));
+    }
+
+    @Test
+    void getUserRepresentationAsync_shouldReuseServiceAccountToken() {
+        var requests = new ArrayList<ClientRequest>();
+        var reactiveService = reactiveKeycloakService(requests, "{}");
+
+        reactiveService.getUserRepresentationAsync("first").block();
+        reactiveService.getUserRepresentationAsync("second").block();
+        assertEquals(1, requests.stream().filter(request -> request.method() == HttpMethod.POST).count());
+        assertEquals(3, requests.size());
+    }
+
+    private KeycloakService reactiveKeycloakService(List<ClientRequest> requests, String adminResponse) {
+        when(keycloakProps.getAuthUrl())
+                .thenReturn("http://test/auth");
+        when(keycloakProps.getClientId())
+                .thenReturn("test-client-id");
+        when(keycloakProps.getClientSecret())
+                .thenReturn("test-client-secret");
+        when(keycloakProps.getRealm())
+                .thenReturn("test");
+        var exchangeClient = WebClient.builder()
+                .baseUrl("http://test")
+                .exchangeFunction(request -> {
+                    requests.add(request);
+                    String body = request.method() == HttpMethod.POST
+                            ? "{\"access_token\":\"service-token\",\"expires_in\":300}"
+                            : adminResponse;
+                    return Mono.just(ClientResponse.create(HttpStatus.OK)
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .body(body)
+                            .build());
+                })
+                .build();
+        return new KeycloakService(exchangeClient, keycloakProps, keycloakClient, dependencyMetrics);
     }
 
     private void setupKeycloakPropsMock() {
@@ -200,7 +264,7 @@ class KeycloakServiceTest {
                 .thenReturn(mockWebHeader);
         when(mockWebHeader.retrieve())
                 .thenReturn(mockResponseSpec);
-        when(mockResponseSpec.bodyToFlux(KeycloakAuthResponse.class))
-                .thenReturn(Flux.just(TestMock.mockKeycloakAuthResponse()));
+        when(mockResponseSpec.bodyToMono(KeycloakAuthResponse.class))
+                .thenReturn(Mono.just(TestMock.mockKeycloakAuthResponse()));
     }
 }
\ No newline at end of file
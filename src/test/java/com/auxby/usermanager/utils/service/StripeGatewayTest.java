@@ -0,0 +1,91 @@
+package com.auxby.usermanager.utils.service;
+
+import com.auxby.usermanager.config.properties.StripeClientProps;
+import com.auxby.usermanager.exception.StripeUnavailableException;
+import com.auxby.usermanager.utils.metrics.DependencyMetrics;
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.net.RequestOptions;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StripeGatewayTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ThreadPoolTaskExecutor stripeExecutor;
+    private StripeGateway stripeGateway;
+
+    @BeforeEach
+    void setup() {
+        var stripeClientProps = new StripeClientProps();
+        stripeExecutor = new ThreadPoolTaskExecutor();
+        stripeExecutor.setCorePoolSize(1);
+        stripeExecutor.setMaxPoolSize(1);
+        stripeExecutor.setQueueCapacity(0);
+        stripeExecutor.initialize();
+        stripeGateway = new StripeGateway("sk_test", stripeClientProps, stripeExecutor,
+                new DependencyMetrics(meterRegistry), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stripeExecutor.shutdown();
+    }
+
+    @Test
+    void execute_shouldRunCallWithConfiguredOptions() throws Exception {
+        AtomicReference<RequestOptions> optionsArg = new AtomicReference<>();
+
+        var result = stripeGateway.execute("test", options -> {
+            optionsArg.set(options);
+            return Thread.currentThread().getName();
+        }).get();
+        assertTrue(result.startsWith(stripeExecutor.getThreadNamePrefix()));
+        assertEquals("sk_test", optionsArg.get().getApiKey());
+        assertEquals(2000, optionsArg.get().getConnectTimeout());
+        assertEquals(10000, optionsArg.get().getReadTimeout());
+        assertEquals(2, optionsArg.get().getMaxNetworkRetries());
+        assertNotNull(optionsArg.get().getIdempotencyKey());
+    }
+
+    @Test
+    void execute_shouldFailWithStripeException() {
+        var result = stripeGateway.execute("test", options -> {
+            throw new ApiConnectionException("Test exception.");
+        });
+
+        var exception = assertThrows(ExecutionException.class, result::get);
+        assertInstanceOf(ApiConnectionException.class, exception.getCause());
+    }
+
+    @Test
+    void execute_shouldReject_whenBulkheadFull() throws Exception {
+        var release = new CountDownLatch(1);
+        var running = stripeGateway.execute("test", options -> {
+            awaitQuietly(release);
+            return "done";
+        });
+
+        var rejected = stripeGateway.execute("test", options -> "unreachable");
+        var exception = assertThrows(ExecutionException.class, rejected::get);
+        assertInstanceOf(StripeUnavailableException.class, exception.getCause());
+        assertEquals(1, meterRegistry.counter("stripe.bulkhead.rejected").count());
+        release.countDown();
+        assertEquals("done", running.get());
+    }
+
+    private void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}